@@ -0,0 +1,79 @@
+package com.sagan.astar;
+
+// Plain A* over every cell, with the Manhattan heuristic (exact on an empty
+// 4-connected grid, never an overestimate with walls). The baseline that
+// JumpPointSearch is measured against.
+//
+// solve() runs a whole search. begin() and step() run the same search one
+// expansion at a time, for callers that want to show it as it goes.
+public class AStarSearch extends GridSearch {
+    private Grid grid;
+    private int goal;
+    private boolean finished;
+    private int[] found;
+
+    @Override
+    public Path solve(Grid grid, int start, int goal) {
+        begin(grid, start, goal);
+        while (step()) {
+        }
+        return result();
+    }
+
+    public void begin(Grid grid, int start, int goal) {
+        checkCell(grid, start, "Start");
+        checkCell(grid, goal, "Goal");
+        prepare(grid.size());
+        this.grid = grid;
+        this.goal = goal;
+        this.found = null;
+        this.finished = grid.isWall(start) || grid.isWall(goal);
+        if (!finished) start(start, manhattan(grid, start, goal));
+    }
+
+    // Expand one cell; false once the goal is reached or the open set is empty
+    public boolean step() {
+        while (!finished) {
+            if (open.isEmpty()) {
+                finished = true;
+                break;
+            }
+            int current = open.pop();
+            if (isClosed(current)) continue;
+            close(current);
+            if (current == goal) {
+                found = trace(goal);
+                finished = true;
+                break;
+            }
+
+            int width = grid.width();
+            int x = current % width, y = current / width;
+            int gx = grid.x(goal), gy = grid.y(goal);
+            int cost = g[current] + 1;
+            if (grid.isWalkable(x + 1, y)) relax(current + 1, current, cost, Math.abs(x + 1 - gx) + Math.abs(y - gy));
+            if (grid.isWalkable(x - 1, y)) relax(current - 1, current, cost, Math.abs(x - 1 - gx) + Math.abs(y - gy));
+            if (grid.isWalkable(x, y + 1)) relax(current + width, current, cost, Math.abs(x - gx) + Math.abs(y + 1 - gy));
+            if (grid.isWalkable(x, y - 1)) relax(current - width, current, cost, Math.abs(x - gx) + Math.abs(y - 1 - gy));
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    // The path once finished; empty while running or when there is none
+    public Path result() {
+        return new Path(found == null ? new int[0] : found, expanded);
+    }
+
+    private int[] trace(int goal) {
+        int length = 1;
+        for (int id = goal; parent[id] != -1; id = parent[id]) length++;
+        int[] cells = new int[length];
+        for (int id = goal, i = length - 1; i >= 0; id = parent[id], i--) cells[i] = id;
+        return cells;
+    }
+}
@@ -0,0 +1,116 @@
+package com.sagan.astar;
+
+// Uniform-cost 4-connected grid of walkable and wall cells, stored as one bit per
+// cell. Cells are addressed by id = y * width + x, so a 10k x 10k grid is 12.5 MB.
+public class Grid {
+    private final int width;
+    private final int height;
+    private final long[] walls;
+    private int version;
+
+    public Grid(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Grid size must be positive: " + width + "x" + height);
+        }
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid too large for int cell ids: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.walls = new long[(int) (((long) width * height + 63) >>> 6)];
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int size() {
+        return width * height;
+    }
+
+    public int id(int x, int y) {
+        return y * width + x;
+    }
+
+    public int x(int id) {
+        return id % width;
+    }
+
+    public int y(int id) {
+        return id / width;
+    }
+
+    // Cells outside the grid count as walls
+    public boolean isWalkable(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        int id = y * width + x;
+        return (walls[id >>> 6] & (1L << id)) == 0;
+    }
+
+    public boolean isWall(int id) {
+        return (walls[id >>> 6] & (1L << id)) != 0;
+    }
+
+    // Bumped by every setWall, so derived data can tell when it is stale
+    public int version() {
+        return version;
+    }
+
+    // Wall bits of cells x0 .. x0 + 63 in row y, bit k for cell x0 + k. Cells outside
+    // the grid read as walls, so a run along a row can test 64 cells per word.
+    long wallBits(int x0, int y) {
+        return rowBits(walls, x0, y, true);
+    }
+
+    // The same window over any bitset laid out like the walls; cells outside the
+    // grid read as outside
+    long rowBits(long[] bits, int x0, int y, boolean outside) {
+        long fill = outside ? -1L : 0L;
+        if (y < 0 || y >= height) return fill;
+        int lo = Math.max(x0, 0);
+        int hi = (int) Math.min((long) x0 + 64, width);
+        if (lo >= hi) return fill;
+        int count = hi - lo;
+        long inside = count == 64 ? -1L : (1L << count) - 1;
+        int shift = lo - x0;
+        long window = (bits(bits, y * width + lo) & inside) << shift;
+        return outside ? window | ~(inside << shift) : window;
+    }
+
+    // Wall bits of ids start .. start + 63 with no regard for rows; ids outside
+    // 0 .. size - 1 read as walls
+    long flatWallBits(long start) {
+        long end = start + 64;
+        long n = size();
+        if (start >= 0 && end <= n) return bits(walls, (int) start);
+        long result = 0;
+        for (long id = start; id < end; id++) {
+            if (id < 0 || id >= n || (walls[(int) (id >>> 6)] & (1L << id)) != 0) {
+                result |= 1L << (id - start);
+            }
+        }
+        return result;
+    }
+
+    // 64 bits of a bitset from bit start on; bits past the end of the array are 0
+    static long bits(long[] bits, int start) {
+        int word = start >>> 6, offset = start & 63;
+        long value = bits[word] >>> offset;
+        if (offset != 0 && word + 1 < bits.length) value |= bits[word + 1] << (64 - offset);
+        return value;
+    }
+
+    public void setWall(int x, int y, boolean wall) {
+        int id = id(x, y);
+        version++;
+        if (wall) {
+            walls[id >>> 6] |= 1L << id;
+        } else {
+            walls[id >>> 6] &= ~(1L << id);
+        }
+    }
+}
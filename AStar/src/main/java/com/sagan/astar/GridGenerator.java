@@ -0,0 +1,68 @@
+package com.sagan.astar;
+
+import java.util.Random;
+
+// Random-wall grids for the demo and for benchmarks: each cell is a wall with the
+// given probability. The variant with start and goal keeps both open and draws
+// again until they are connected, as the Swing demo always has.
+public final class GridGenerator {
+    private static final int MAX_ATTEMPTS = 1000;
+
+    private GridGenerator() {
+    }
+
+    public static Grid randomWalls(int width, int height, double density, Random rand) {
+        Grid grid = new Grid(width, height);
+        fill(grid, density, rand);
+        return grid;
+    }
+
+    public static Grid randomWalls(int width, int height, double density, int start, int goal, Random rand) {
+        Grid grid = new Grid(width, height);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            fill(grid, density, rand);
+            grid.setWall(grid.x(start), grid.y(start), false);
+            grid.setWall(grid.x(goal), grid.y(goal), false);
+            if (isConnected(grid, start, goal)) return grid;
+        }
+        // Past about 41% walls large grids are almost never connected end to end
+        throw new IllegalStateException("No connected " + width + "x" + height + " grid with wall density "
+                + density + " after " + MAX_ATTEMPTS + " attempts");
+    }
+
+    // Breadth-first flood from a to b over open cells
+    public static boolean isConnected(Grid grid, int a, int b) {
+        if (grid.isWall(a) || grid.isWall(b)) return false;
+        int width = grid.width();
+        long[] seen = new long[(grid.size() + 63) >>> 6];
+        int[] queue = new int[grid.size()];
+        int head = 0, tail = 0;
+        queue[tail++] = a;
+        seen[a >>> 6] |= 1L << a;
+        while (head < tail) {
+            int current = queue[head++];
+            if (current == b) return true;
+            int x = current % width, y = current / width;
+            if (grid.isWalkable(x + 1, y)) tail = visit(seen, queue, tail, current + 1);
+            if (grid.isWalkable(x - 1, y)) tail = visit(seen, queue, tail, current - 1);
+            if (grid.isWalkable(x, y + 1)) tail = visit(seen, queue, tail, current + width);
+            if (grid.isWalkable(x, y - 1)) tail = visit(seen, queue, tail, current - width);
+        }
+        return false;
+    }
+
+    private static int visit(long[] seen, int[] queue, int tail, int id) {
+        if ((seen[id >>> 6] & (1L << id)) != 0) return tail;
+        seen[id >>> 6] |= 1L << id;
+        queue[tail] = id;
+        return tail + 1;
+    }
+
+    private static void fill(Grid grid, double density, Random rand) {
+        for (int y = 0; y < grid.height(); y++) {
+            for (int x = 0; x < grid.width(); x++) {
+                grid.setWall(x, y, rand.nextDouble() < density);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.sagan.astar;
+
+import java.util.Arrays;
+
+// Buffers shared by the best-first searches: a binary heap for the open set and
+// per-cell g, parent and seen/closed marks in flat arrays. The marks hold the
+// number of the search that set them, so starting a search clears nothing.
+abstract class GridSearch implements Pathfinder {
+    protected final IntMinHeap open = new IntMinHeap();
+    protected int[] g = new int[0];
+    protected int[] parent = new int[0];
+    private int[] seenIn = new int[0];
+    private int[] closedIn = new int[0];
+    private int search;
+    protected int expanded;
+
+    protected void prepare(int cells) {
+        if (g.length < cells) {
+            g = new int[cells];
+            parent = new int[cells];
+            seenIn = new int[cells];
+            closedIn = new int[cells];
+            search = 0;
+        }
+        if (++search == 0) {
+            Arrays.fill(seenIn, 0);
+            Arrays.fill(closedIn, 0);
+            search = 1;
+        }
+        open.clear();
+        expanded = 0;
+    }
+
+    protected boolean isSeen(int id) {
+        return seenIn[id] == search;
+    }
+
+    // State of the last search started, for callers that draw it
+    public boolean isOpen(int id) {
+        return seenIn[id] == search && closedIn[id] != search;
+    }
+
+    public boolean isClosed(int id) {
+        return closedIn[id] == search;
+    }
+
+    protected void close(int id) {
+        closedIn[id] = search;
+        expanded++;
+    }
+
+    // Record a route to id and queue it, unless id already has one at least as short
+    protected void relax(int id, int from, int cost, int h) {
+        if (isClosed(id)) return;
+        if (seenIn[id] == search && cost >= g[id]) return;
+        seenIn[id] = search;
+        g[id] = cost;
+        parent[id] = from;
+        open.push(id, key(cost, cost + h));
+    }
+
+    protected void start(int id, int h) {
+        seenIn[id] = search;
+        g[id] = 0;
+        parent[id] = -1;
+        open.push(id, key(0, h));
+    }
+
+    // Order by f, then prefer the larger g (closer to the goal along its path)
+    protected static long key(int g, int f) {
+        return ((long) f << 32) | (Integer.MAX_VALUE - g);
+    }
+
+    protected static int manhattan(Grid grid, int a, int b) {
+        return Math.abs(grid.x(a) - grid.x(b)) + Math.abs(grid.y(a) - grid.y(b));
+    }
+
+    protected static void checkCell(Grid grid, int id, String name) {
+        if (id < 0 || id >= grid.size()) {
+            throw new IllegalArgumentException(name + " cell " + id + " is outside the grid");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.sagan.astar;
+
+import java.util.Arrays;
+
+// Binary min-heap of int ids keyed by a long, in two parallel arrays. There is no
+// decrease-key: a better key is pushed again and the stale entry is skipped by the
+// caller's closed check when it surfaces.
+class IntMinHeap {
+    private int[] ids = new int[64];
+    private long[] keys = new long[64];
+    private int size;
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void push(int id, long key) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) break;
+            ids[i] = ids[parent];
+            keys[i] = keys[parent];
+            i = parent;
+        }
+        ids[i] = id;
+        keys[i] = key;
+    }
+
+    int pop() {
+        int top = ids[0];
+        int last = --size;
+        if (last > 0) {
+            int id = ids[last];
+            long key = keys[last];
+            int i = 0;
+            int half = last >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < last && keys[child + 1] < keys[child]) child++;
+                if (key <= keys[child]) break;
+                ids[i] = ids[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            ids[i] = id;
+            keys[i] = key;
+        }
+        return top;
+    }
+}
@@ -0,0 +1,167 @@
+package com.sagan.astar;
+
+// Jump Point Search for a uniform-cost 4-connected grid. Instead of queueing every
+// neighbour, the search runs in straight lines and only stops at jump points:
+// the goal, a cell with a forced neighbour (an opening beside it that the cell
+// just behind it did not have), or, when running vertically, a cell from which a
+// horizontal run finds one of those. Everything between two jump points is a
+// straight segment, so only jump points enter the heap and the closed set, and
+// the path is filled back in cell by cell at the end.
+//
+// Horizontal runs, which the vertical ones start at every step, test 64 cells at a
+// time: which cells are forced when running right or left depends on the walls
+// alone, so it is kept as two bitsets laid out like the walls and rebuilt only when
+// the grid or its version changes.
+public class JumpPointSearch extends GridSearch {
+    private Grid grid;
+    private int goal;
+
+    private Grid forcedGrid;
+    private int forcedVersion;
+    private long[] forcedRight = new long[0];
+    private long[] forcedLeft = new long[0];
+
+    @Override
+    public Path solve(Grid grid, int start, int goal) {
+        checkCell(grid, start, "Start");
+        checkCell(grid, goal, "Goal");
+        prepare(grid.size());
+        if (grid.isWall(start) || grid.isWall(goal)) return new Path(new int[0], 0);
+
+        this.grid = grid;
+        this.goal = goal;
+        if (grid != forcedGrid || grid.version() != forcedVersion) buildForced(grid);
+        int width = grid.width();
+        start(start, manhattan(grid, start, goal));
+        try {
+            while (!open.isEmpty()) {
+                int current = open.pop();
+                if (isClosed(current)) continue;
+                close(current);
+                if (current == goal) return new Path(trace(goal), expanded);
+
+                int x = current % width, y = current / width;
+                int from = parent[current];
+                if (from == -1) {
+                    successor(current, x, y, 1, 0);
+                    successor(current, x, y, -1, 0);
+                    successor(current, x, y, 0, 1);
+                    successor(current, x, y, 0, -1);
+                } else {
+                    int dx = Integer.signum(x - grid.x(from));
+                    int dy = Integer.signum(y - grid.y(from));
+                    if (dx != 0) {
+                        // Keep going, or turn off a horizontal run either way
+                        successor(current, x, y, dx, 0);
+                        successor(current, x, y, 0, 1);
+                        successor(current, x, y, 0, -1);
+                    } else {
+                        successor(current, x, y, 0, dy);
+                        successor(current, x, y, 1, 0);
+                        successor(current, x, y, -1, 0);
+                    }
+                }
+            }
+            return new Path(new int[0], expanded);
+        } finally {
+            this.grid = null;
+        }
+    }
+
+    private void successor(int current, int x, int y, int dx, int dy) {
+        int jump = dx != 0 ? jumpHorizontal(x + dx, y, dx) : jumpVertical(x, y + dy, dy);
+        if (jump < 0) return;
+        relax(jump, current, g[current] + manhattan(grid, current, jump), manhattan(grid, jump, goal));
+    }
+
+    // A cell is forced for a run in direction dx when the cell above (or below) it
+    // is open but the one behind that is a wall or outside the grid
+    private void buildForced(Grid grid) {
+        int width = grid.width();
+        int words = (grid.size() + 63) >>> 6;
+        if (forcedRight.length < words) {
+            forcedRight = new long[words];
+            forcedLeft = new long[words];
+        }
+        for (int i = 0; i < words; i++) {
+            long start = (long) i << 6;
+            long firstColumn = 0, lastColumn = 0;
+            for (long id = (start + width - 1) / width * width; id < start + 64; id += width) {
+                firstColumn |= 1L << (id - start);
+            }
+            for (long id = (start + width) / width * width - 1; id < start + 64; id += width) {
+                if (id >= start) lastColumn |= 1L << (id - start);
+            }
+            long above = grid.flatWallBits(start - width), below = grid.flatWallBits(start + width);
+            forcedRight[i] = (~above & (grid.flatWallBits(start - width - 1) | firstColumn))
+                    | (~below & (grid.flatWallBits(start + width - 1) | firstColumn));
+            forcedLeft[i] = (~above & (grid.flatWallBits(start - width + 1) | lastColumn))
+                    | (~below & (grid.flatWallBits(start + width + 1) | lastColumn));
+        }
+        forcedGrid = grid;
+        forcedVersion = grid.version();
+    }
+
+    // First jump point running from (x, y) in direction dx, or -1 at a wall. Each
+    // word covers 64 cells, from x0 rightwards when going right and ending at x
+    // when going left.
+    private int jumpHorizontal(int x, int y, int dx) {
+        int goalX = grid.x(goal), goalY = grid.y(goal);
+        while (true) {
+            int x0 = dx > 0 ? x : x - 63;
+            long walls = grid.wallBits(x0, y);
+            long stops = grid.rowBits(dx > 0 ? forcedRight : forcedLeft, x0, y, false);
+            if (y == goalY && goalX >= x0 && goalX < x0 + 64) stops |= 1L << (goalX - x0);
+            if (dx > 0) {
+                int wall = Long.numberOfTrailingZeros(walls);
+                int stop = Long.numberOfTrailingZeros(stops);
+                if (stop < wall) return grid.id(x0 + stop, y);
+                if (wall < 64) return -1;
+                x += 64;
+            } else {
+                int wall = 63 - Long.numberOfLeadingZeros(walls);
+                int stop = 63 - Long.numberOfLeadingZeros(stops);
+                if (stop > wall) return grid.id(x0 + stop, y);
+                if (wall >= 0) return -1;
+                x -= 64;
+            }
+        }
+    }
+
+    private int jumpVertical(int x, int y, int dy) {
+        int goalX = grid.x(goal), goalY = grid.y(goal);
+        while (grid.isWalkable(x, y)) {
+            if (x == goalX && y == goalY) return grid.id(x, y);
+            if ((grid.isWalkable(x - 1, y) && !grid.isWalkable(x - 1, y - dy))
+                    || (grid.isWalkable(x + 1, y) && !grid.isWalkable(x + 1, y - dy))) {
+                return grid.id(x, y);
+            }
+            // A horizontal run from here reaching a jump point makes this one
+            if (jumpHorizontal(x + 1, y, 1) >= 0 || jumpHorizontal(x - 1, y, -1) >= 0) {
+                return grid.id(x, y);
+            }
+            y += dy;
+        }
+        return -1;
+    }
+
+    // Walk back over the jump points, filling in the straight segments between them
+    private int[] trace(int goal) {
+        int length = 1;
+        for (int id = goal; parent[id] != -1; id = parent[id]) {
+            length += manhattan(grid, id, parent[id]);
+        }
+        int[] cells = new int[length];
+        int i = length - 1;
+        cells[i] = goal;
+        for (int id = goal; parent[id] != -1; id = parent[id]) {
+            int from = parent[id];
+            int step = grid.y(id) == grid.y(from) ? Integer.signum(id - from) : Integer.signum(id - from) * grid.width();
+            for (int cell = id - step; cell != from; cell -= step) {
+                cells[--i] = cell;
+            }
+            cells[--i] = from;
+        }
+        return cells;
+    }
+}
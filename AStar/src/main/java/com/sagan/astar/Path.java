@@ -0,0 +1,30 @@
+package com.sagan.astar;
+
+// Result of one search: the cell ids from start to goal (empty when the goal
+// cannot be reached) and how many nodes the search expanded on the way.
+public class Path {
+    private final int[] cells;
+    private final int expanded;
+
+    public Path(int[] cells, int expanded) {
+        this.cells = cells;
+        this.expanded = expanded;
+    }
+
+    public int[] cells() {
+        return cells;
+    }
+
+    public boolean found() {
+        return cells.length > 0;
+    }
+
+    // Steps from start to goal, or -1 when there is no path
+    public int length() {
+        return cells.length - 1;
+    }
+
+    public int expanded() {
+        return expanded;
+    }
+}
@@ -0,0 +1,8 @@
+package com.sagan.astar;
+
+// Headless single-query search on a Grid. Implementations keep their buffers
+// between calls, so reuse one instance per thread for many queries.
+public interface Pathfinder {
+
+    Path solve(Grid grid, int start, int goal);
+}
@@ -0,0 +1,62 @@
+package com.sagan.astar;
+
+import java.util.Random;
+
+// Plain A* against Jump Point Search on the same random-wall grid and the same
+// start/goal pairs, without any UI. Prints the mean time per query and the mean
+// number of expanded nodes, and fails if the two ever disagree on a path length.
+//   java -cp target/classes com.sagan.astar.PathfinderBenchmark 4000 4000 0.3 200
+public class PathfinderBenchmark {
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : width;
+        double density = args.length > 2 ? Double.parseDouble(args[2]) : 0.3;
+        int queries = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+        Random rand = new Random(seed);
+        Grid grid = GridGenerator.randomWalls(width, height, density, rand);
+        int[] starts = new int[queries];
+        int[] goals = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            starts[i] = openCell(grid, rand);
+            goals[i] = openCell(grid, rand);
+        }
+
+        Pathfinder[] finders = {new AStarSearch(), new JumpPointSearch()};
+        String[] names = {"A*", "JPS"};
+        int[][] lengths = new int[finders.length][queries];
+        // The first round only warms up the JIT
+        for (int round = 0; round < 2; round++) {
+            for (int f = 0; f < finders.length; f++) {
+                long expanded = 0;
+                long begin = System.nanoTime();
+                for (int i = 0; i < queries; i++) {
+                    Path path = finders[f].solve(grid, starts[i], goals[i]);
+                    lengths[f][i] = path.length();
+                    expanded += path.expanded();
+                }
+                long elapsed = System.nanoTime() - begin;
+                if (round == 1) {
+                    System.out.printf("%-4s %dx%d walls %.2f: %.3f ms/query, %d expanded/query%n",
+                            names[f], width, height, density, elapsed / 1e6 / queries, expanded / queries);
+                }
+            }
+        }
+        for (int i = 0; i < queries; i++) {
+            if (lengths[0][i] != lengths[1][i]) {
+                throw new IllegalStateException("Query " + i + ": A* length " + lengths[0][i]
+                        + ", JPS length " + lengths[1][i]);
+            }
+        }
+    }
+
+    private static int openCell(Grid grid, Random rand) {
+        int id;
+        do {
+            id = rand.nextInt(grid.size());
+        } while (grid.isWall(id));
+        return id;
+    }
+}
@@ -2,91 +2,165 @@ package com.example.mazesolver;
 
 import java.util.*;
 
+// A* towards the maze goal. The heuristic is the Manhattan distance, or, when the
+// solver is given a LandmarkTable, the larger of that and the ALT landmark bound;
+// both are consistent, so the larger one is too. In a maze the Manhattan distance
+// is far below the real one, while landmark bounds follow the corridors.
+// Steps cost maze.cost() of the cell entered. Both bounds count steps, so they are
+// scaled by the cheapest cell cost, which keeps them consistent on terrain.
 public class AStarSolver {
 
-    private final MazeView.Cell[][] grid;
-    private final int cols;
-    private final int rows;
-
-    public AStarSolver(MazeView.Cell[][] grid, int cols, int rows) {
-        this.grid = grid;
-        this.cols = cols;
-        this.rows = rows;
+    private final Maze maze;
+    private final NeighborKernel kernel;
+    private final LandmarkTable landmarks;
+    private final int[] goalDist;
+    private final IndexedMinHeap openSet = new IndexedMinHeap();
+    private int[] gScore = new int[0];
+    private int[] cameFrom = new int[0];
+    private long[] seen = new long[0];
+    private long[] closed = new long[0];
+    private int closedCount;
+    private int goalX, goalY;
+    private int minCost;
+    private SolveEventBatch events;
+
+    public AStarSolver(Maze maze) {
+        this(maze, null);
     }
 
-    public static class Result {
-        public final List<MazeView.Cell> path;
-        public final Set<MazeView.Cell> visited;
+    // The table must have been built for this maze
+    public AStarSolver(Maze maze, LandmarkTable landmarks) {
+        this.maze = maze;
+        this.kernel = NeighborKernel.of(maze);
+        this.landmarks = landmarks;
+        this.goalDist = landmarks == null ? null : new int[landmarks.count()];
+    }
 
-        public Result(List<MazeView.Cell> path, Set<MazeView.Cell> visited) {
-            this.path = path;
-            this.visited = visited;
-        }
+    public AStarSolver(MazeView.Cell[][] grid, int cols, int rows) {
+        this(MazeGrid.fromCells(grid, cols, rows));
     }
 
-    public Result solve() {
-        Set<MazeView.Cell> visited = new HashSet<>();
-        Map<MazeView.Cell, MazeView.Cell> cameFrom = new HashMap<>();
-        Map<MazeView.Cell, Integer> gScore = new HashMap<>();
+    public SolveResult solve() {
+        return solve(null);
+    }
 
-        PriorityQueue<MazeView.Cell> openSet = new PriorityQueue<>(Comparator.comparingInt(c -> gScore.getOrDefault(c, Integer.MAX_VALUE) + heuristic(c)));
+    // Same solve, streaming expanded/frontier cells and then the path to the listener
+    public SolveResult solve(SolveListener listener) {
+        SolveMetrics metrics = Metrics.current();
+        events = listener == null ? null : new SolveEventBatch(listener);
+        int n = maze.size();
+        int start = maze.start();
+        int goal = maze.goal();
+        goalX = maze.x(goal);
+        goalY = maze.y(goal);
+        minCost = maze.minCost();
+        if (landmarks != null) {
+            for (int i = 0; i < goalDist.length; i++) {
+                goalDist[i] = landmarks.distance(i, goal);
+            }
+        }
 
-        MazeView.Cell start = grid[0][0];
-        MazeView.Cell goal = grid[cols - 1][rows - 1];
+        ensureCapacity(n);
+        int words = (n + 63) >>> 6;
+        Arrays.fill(seen, 0, words, 0L);
+        Arrays.fill(closed, 0, words, 0L);
+        closedCount = 0;
+        openSet.reset(n);
+        if (metrics != null) metrics.mark(SolveMetrics.SETUP);
 
-        gScore.put(start, 0);
-        openSet.add(start);
+        gScore[start] = 0;
+        cameFrom[start] = -1;
+        seen[start >>> 6] |= 1L << start;
+        openSet.push(start, key(0, heuristic(start)));
+        if (events != null) events.add(SolveListener.FRONTIER, start);
 
         while (!openSet.isEmpty()) {
-            MazeView.Cell current = openSet.poll();
-            visited.add(current);
-
-            if (current.equals(goal)) break;
-
-            for (MazeView.Cell neighbor : getNeighbors(current)) {
-                int tentativeGScore = gScore.getOrDefault(current, Integer.MAX_VALUE) + 1;
-                if (tentativeGScore < gScore.getOrDefault(neighbor, Integer.MAX_VALUE)) {
-                    cameFrom.put(neighbor, current);
-                    gScore.put(neighbor, tentativeGScore);
-                    if (!openSet.contains(neighbor)) {
-                        openSet.add(neighbor);
-                    }
-                }
+            int current = openSet.pop();
+            closed[current >>> 6] |= 1L << current;
+            closedCount++;
+            if ((closedCount & 4095) == 0) SolverExecutor.throwIfCancelled();
+            if (events != null) events.add(SolveListener.EXPANDED, current);
+
+            if (current == goal) break;
+
+            int open = maze.openSides(current);
+            int g = gScore[current];
+            for (int k = 0, end = kernel.count(open); k < end; k++) {
+                int next = current + kernel.offset(open, k);
+                relax(next, current, g + maze.cost(next));
             }
         }
+        if (metrics != null) {
+            metrics.mark(SolveMetrics.SEARCH);
+            metrics.expanded = closedCount;
+            metrics.addQueue(openSet.pushCount(), openSet.popCount(), openSet.updateCount(), openSet.peakSize());
+        }
 
-        List<MazeView.Cell> path = reconstructPath(cameFrom, goal);
-        return new Result(path, visited);
+        List<MazeView.Cell> path = reconstructPath(start, goal);
+        if (events != null) {
+            events.addPath(maze, path);
+            events.flush();
+            events = null;
+        }
+        Set<MazeView.Cell> visited = new VisitedCellSet(maze, Arrays.copyOf(closed, words), closedCount);
+        if (metrics != null) metrics.mark(SolveMetrics.PATH);
+        return new SolveResult(path, visited);
     }
 
-    private int heuristic(MazeView.Cell cell) {
-        return Math.abs(cell.x - (cols - 1)) + Math.abs(cell.y - (rows - 1));
+    private void relax(int neighbor, int current, int tentativeGScore) {
+        // The heuristic is consistent, so a closed cell never improves
+        if ((closed[neighbor >>> 6] & (1L << neighbor)) != 0) return;
+        boolean known = (seen[neighbor >>> 6] & (1L << neighbor)) != 0;
+        if (known && tentativeGScore >= gScore[neighbor]) return;
+
+        seen[neighbor >>> 6] |= 1L << neighbor;
+        gScore[neighbor] = tentativeGScore;
+        cameFrom[neighbor] = current;
+        if (!known && events != null) events.add(SolveListener.FRONTIER, neighbor);
+        openSet.pushOrDecrease(neighbor, key(tentativeGScore, tentativeGScore + heuristic(neighbor)));
     }
 
-    private List<MazeView.Cell> reconstructPath(Map<MazeView.Cell, MazeView.Cell> cameFrom, MazeView.Cell goal) {
+    // Order by f, then prefer the larger g (the cell closer to the goal along its path)
+    private static long key(int g, int f) {
+        return ((long) f << 32) | (Integer.MAX_VALUE - g);
+    }
+
+    private int heuristic(int id) {
+        int bound = Math.abs(maze.x(id) - goalX) + Math.abs(maze.y(id) - goalY);
+        if (landmarks != null) {
+            for (int i = 0; i < goalDist.length; i++) {
+                int da = landmarks.distance(i, id), db = goalDist[i];
+                if (da < 0 || db < 0) continue;
+                int d = da > db ? da - db : db - da;
+                if (d > bound) bound = d;
+            }
+        }
+        return bound * minCost;
+    }
+
+    private List<MazeView.Cell> reconstructPath(int start, int goal) {
         List<MazeView.Cell> path = new ArrayList<>();
-        MazeView.Cell current = goal;
 
-        while (current != null && cameFrom.containsKey(current)) {
-            path.add(current);
-            current = cameFrom.get(current);
+        if ((seen[goal >>> 6] & (1L << goal)) != 0) {
+            for (int current = goal; current != start; current = cameFrom[current]) {
+                path.add(maze.cell(current));
+            }
         }
 
-        path.add(grid[0][0]);
+        path.add(maze.cell(start));
         Collections.reverse(path);
         return path;
     }
 
-    private List<MazeView.Cell> getNeighbors(MazeView.Cell cell) {
-        List<MazeView.Cell> neighbors = new ArrayList<>();
-        int x = cell.x;
-        int y = cell.y;
-
-        if (x > 0 && !cell.leftWall) neighbors.add(grid[x - 1][y]);
-        if (x < cols - 1 && !cell.rightWall) neighbors.add(grid[x + 1][y]);
-        if (y > 0 && !cell.topWall) neighbors.add(grid[x][y - 1]);
-        if (y < rows - 1 && !cell.bottomWall) neighbors.add(grid[x][y + 1]);
-
-        return neighbors;
+    private void ensureCapacity(int n) {
+        int words = (n + 63) >>> 6;
+        if (gScore.length < n) {
+            gScore = new int[n];
+            cameFrom = new int[n];
+        }
+        if (seen.length < words) {
+            seen = new long[words];
+            closed = new long[words];
+        }
     }
 }
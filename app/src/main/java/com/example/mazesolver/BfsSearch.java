@@ -0,0 +1,136 @@
+package com.example.mazesolver;
+
+import java.util.Arrays;
+
+// Breadth-first search over a MazeGrid using only primitive arrays: an int ring
+// buffer for the queue, a bitset for visited cells and an int[] parent table.
+// The buffers are kept between runs, so a long-lived instance stops allocating
+// once it has grown to the maze size.
+public class BfsSearch {
+
+    private int[] queue = new int[64];
+    private int head, tail;
+    private long[] visited = new long[0];
+    private int[] parent = new int[0];
+    private int visitedCount;
+    // Counted separately from head, which growQueue() rebases to 0
+    private int expandedCount;
+    private int peakQueue;
+    private NeighborKernel kernel;
+    private SolveEventBatch events;
+
+    // Search from start until goal is dequeued or the reachable area is exhausted.
+    // Returns true when goal was reached.
+    public boolean run(Maze maze, int start, int goal) {
+        return run(maze, start, goal, null, ~0);
+    }
+
+    // Same search with some cells treated as already visited (never entered) and
+    // the start cell only left through the sides in startSides
+    public boolean run(Maze maze, int start, int goal, long[] blocked, int startSides) {
+        int n = maze.size();
+        int words = (n + 63) >>> 6;
+        ensureCapacity(n);
+        if (kernel == null || kernel.cols() != maze.cols()) kernel = NeighborKernel.of(maze);
+        if (blocked == null) {
+            Arrays.fill(visited, 0, words, 0L);
+        } else {
+            System.arraycopy(blocked, 0, visited, 0, words);
+        }
+        head = 0;
+        tail = 0;
+        peakQueue = 0;
+        expandedCount = 0;
+
+        mark(start);
+        parent[start] = -1;
+        visitedCount = 1;
+        push(start);
+        if (events != null) events.add(SolveListener.FRONTIER, start);
+
+        while (head != tail) {
+            int current = queue[head++ & (queue.length - 1)];
+            if ((++expandedCount & 4095) == 0) SolverExecutor.throwIfCancelled();
+            if (events != null) events.add(SolveListener.EXPANDED, current);
+
+            if (current == goal) return true;
+
+            int open = maze.openSides(current);
+            if (current == start) open &= startSides;
+            for (int k = 0, end = kernel.count(open); k < end; k++) {
+                visit(current + kernel.offset(open, k), current);
+            }
+        }
+        return false;
+    }
+
+    // Report expansions and queue pushes of the following runs; null to stop
+    void setEvents(SolveEventBatch events) {
+        this.events = events;
+    }
+
+    public boolean isVisited(int id) {
+        return (visited[id >>> 6] & (1L << id)) != 0;
+    }
+
+    // Parent of a visited cell in the BFS tree, -1 for the start cell
+    public int parent(int id) {
+        return parent[id];
+    }
+
+    public int visitedCount() {
+        return visitedCount;
+    }
+
+    // Cells dequeued by the last run
+    public int expandedCount() {
+        return expandedCount;
+    }
+
+    // Longest the queue got during the last run
+    public int peakQueue() {
+        return peakQueue;
+    }
+
+    // Copy of the visited bits for the last run, safe to keep after the next run
+    public long[] visitedSnapshot(int cells) {
+        return Arrays.copyOf(visited, (cells + 63) >>> 6);
+    }
+
+    private void visit(int next, int from) {
+        if (isVisited(next)) return;
+        mark(next);
+        parent[next] = from;
+        visitedCount++;
+        push(next);
+        if (events != null) events.add(SolveListener.FRONTIER, next);
+    }
+
+    private void mark(int id) {
+        visited[id >>> 6] |= 1L << id;
+    }
+
+    private void push(int id) {
+        if (tail - head == queue.length) growQueue();
+        queue[tail++ & (queue.length - 1)] = id;
+        if (tail - head > peakQueue) peakQueue = tail - head;
+    }
+
+    // Double the ring and unwrap its contents so head..tail stays contiguous
+    private void growQueue() {
+        int count = tail - head;
+        int[] bigger = new int[queue.length << 1];
+        for (int i = 0; i < count; i++) {
+            bigger[i] = queue[(head + i) & (queue.length - 1)];
+        }
+        queue = bigger;
+        head = 0;
+        tail = count;
+    }
+
+    private void ensureCapacity(int n) {
+        int words = (n + 63) >>> 6;
+        if (visited.length < words) visited = new long[words];
+        if (parent.length < n) parent = new int[n];
+    }
+}
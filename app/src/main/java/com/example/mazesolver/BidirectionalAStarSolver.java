@@ -0,0 +1,195 @@
+package com.example.mazesolver;
+
+import java.util.*;
+
+// A* from both ends: the forward search aims at the goal, the backward one at the
+// start, each with its own Manhattan heuristic. best is the shortest start-goal
+// route seen so far through an edge joining the two searches. With consistent
+// heuristics no shorter route can exist once either open set's smallest f reaches
+// best, so the search stops there. The side with the smaller open set goes next.
+public class BidirectionalAStarSolver {
+
+    private final Maze maze;
+    private final NeighborKernel kernel;
+
+    private final Side forward = new Side();
+    private final Side backward = new Side();
+    private int best, meetFrom, meetTo;
+    private SolveEventBatch events;
+
+    public BidirectionalAStarSolver(Maze maze) {
+        this.maze = maze;
+        this.kernel = NeighborKernel.of(maze);
+    }
+
+    public BidirectionalAStarSolver(MazeView.Cell[][] grid, int cols, int rows) {
+        this(MazeGrid.fromCells(grid, cols, rows));
+    }
+
+    // Per-direction search state; target is the cell this direction heads for
+    private static final class Side {
+        final IndexedMinHeap openSet = new IndexedMinHeap();
+        int[] gScore = new int[0];
+        int[] cameFrom = new int[0];
+        long[] seen = new long[0];
+        long[] closed = new long[0];
+        int targetX, targetY;
+
+        void reset(int n, int target, int cols) {
+            int words = (n + 63) >>> 6;
+            if (gScore.length < n) {
+                gScore = new int[n];
+                cameFrom = new int[n];
+            }
+            if (seen.length < words) {
+                seen = new long[words];
+                closed = new long[words];
+            }
+            Arrays.fill(seen, 0, words, 0L);
+            Arrays.fill(closed, 0, words, 0L);
+            openSet.reset(n);
+            targetX = target % cols;
+            targetY = target / cols;
+        }
+
+        boolean isSeen(int id) {
+            return (seen[id >>> 6] & (1L << id)) != 0;
+        }
+
+        boolean isClosed(int id) {
+            return (closed[id >>> 6] & (1L << id)) != 0;
+        }
+
+        // Smallest f in the open set, or MAX_VALUE when it is empty
+        int minF() {
+            return openSet.isEmpty() ? Integer.MAX_VALUE : (int) (openSet.peekKey() >>> 32);
+        }
+    }
+
+    public SolveResult solve() {
+        return solve(null);
+    }
+
+    // Same solve, streaming expanded/frontier cells of both searches and then the path
+    public SolveResult solve(SolveListener listener) {
+        SolveMetrics metrics = Metrics.current();
+        events = listener == null ? null : new SolveEventBatch(listener);
+        int n = maze.size();
+        int cols = maze.cols();
+        int start = maze.start();
+        int goal = maze.goal();
+
+        forward.reset(n, goal, cols);
+        backward.reset(n, start, cols);
+        open(forward, start);
+        open(backward, goal);
+
+        best = start == goal ? 0 : Integer.MAX_VALUE;
+        meetFrom = start;
+        meetTo = start;
+        if (metrics != null) metrics.mark(SolveMetrics.SETUP);
+
+        int expanded = 0;
+        while (Math.max(forward.minF(), backward.minF()) < best) {
+            if ((++expanded & 4095) == 0) SolverExecutor.throwIfCancelled();
+            if (forward.openSet.size() <= backward.openSet.size()) {
+                expand(forward, backward, true);
+            } else {
+                expand(backward, forward, false);
+            }
+        }
+        if (metrics != null) {
+            metrics.mark(SolveMetrics.SEARCH);
+            metrics.expanded = expanded;
+            IndexedMinHeap f = forward.openSet, b = backward.openSet;
+            metrics.addQueue(f.pushCount(), f.popCount(), f.updateCount(), f.peakSize());
+            metrics.addQueue(b.pushCount(), b.popCount(), b.updateCount(), b.peakSize());
+        }
+
+        List<MazeView.Cell> path = reconstructPath(start);
+        if (events != null) {
+            events.addPath(maze, path);
+            events.flush();
+            events = null;
+        }
+
+        int words = (n + 63) >>> 6;
+        long[] visitedBits = new long[words];
+        int visitedCount = 0;
+        for (int i = 0; i < words; i++) {
+            visitedBits[i] = forward.closed[i] | backward.closed[i];
+            visitedCount += Long.bitCount(visitedBits[i]);
+        }
+        if (metrics != null) metrics.mark(SolveMetrics.PATH);
+        return new SolveResult(path, new VisitedCellSet(maze, visitedBits, visitedCount));
+    }
+
+    private void open(Side side, int cell) {
+        side.gScore[cell] = 0;
+        side.cameFrom[cell] = -1;
+        side.seen[cell >>> 6] |= 1L << cell;
+        side.openSet.push(cell, key(0, heuristic(side, cell)));
+        if (events != null) events.add(SolveListener.FRONTIER, cell);
+    }
+
+    private void expand(Side side, Side other, boolean isForward) {
+        int current = side.openSet.pop();
+        side.closed[current >>> 6] |= 1L << current;
+        if (events != null) events.add(SolveListener.EXPANDED, current);
+
+        int open = maze.openSides(current);
+        int tentativeGScore = side.gScore[current] + 1;
+        for (int k = 0, end = kernel.count(open); k < end; k++) {
+            relax(side, other, current + kernel.offset(open, k), current, tentativeGScore, isForward);
+        }
+    }
+
+    private void relax(Side side, Side other, int neighbor, int current, int tentativeGScore, boolean isForward) {
+        // Any cell the other search has reached closes a start-goal route
+        if (other.isSeen(neighbor)) {
+            int length = tentativeGScore + other.gScore[neighbor];
+            if (length < best) {
+                best = length;
+                meetFrom = isForward ? current : neighbor;
+                meetTo = isForward ? neighbor : current;
+            }
+        }
+
+        if (side.isClosed(neighbor)) return;
+        boolean known = side.isSeen(neighbor);
+        if (known && tentativeGScore >= side.gScore[neighbor]) return;
+
+        side.seen[neighbor >>> 6] |= 1L << neighbor;
+        side.gScore[neighbor] = tentativeGScore;
+        side.cameFrom[neighbor] = current;
+        if (!known && events != null) events.add(SolveListener.FRONTIER, neighbor);
+        side.openSet.pushOrDecrease(neighbor, key(tentativeGScore, tentativeGScore + heuristic(side, neighbor)));
+    }
+
+    // Order by f, then prefer the larger g, as in AStarSolver
+    private static long key(int g, int f) {
+        return ((long) f << 32) | (Integer.MAX_VALUE - g);
+    }
+
+    private int heuristic(Side side, int id) {
+        return Math.abs(maze.x(id) - side.targetX) + Math.abs(maze.y(id) - side.targetY);
+    }
+
+    private List<MazeView.Cell> reconstructPath(int start) {
+        List<MazeView.Cell> path = new ArrayList<>();
+        if (best == Integer.MAX_VALUE) {
+            path.add(maze.cell(start));
+            return path;
+        }
+        for (int current = meetFrom; current != -1; current = forward.cameFrom[current]) {
+            path.add(maze.cell(current));
+        }
+        Collections.reverse(path);
+        if (meetTo != meetFrom) {
+            for (int current = meetTo; current != -1; current = backward.cameFrom[current]) {
+                path.add(maze.cell(current));
+            }
+        }
+        return path;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.mazesolver;
+
+import java.util.*;
+
+// Breadth-first search from the start and the goal at once. Each step expands one
+// whole level of whichever frontier is smaller; when a level touches the other
+// search, the shortest connection found in that level is the shortest path, since
+// every edge has the same cost.
+public class BidirectionalBfsSolver {
+
+    private final Maze maze;
+    private final NeighborKernel kernel;
+
+    private int[] forwardQueue = new int[0];
+    private int[] backwardQueue = new int[0];
+    private int[] forwardParent = new int[0];
+    private int[] backwardParent = new int[0];
+    private int[] forwardDist = new int[0];
+    private int[] backwardDist = new int[0];
+    private long[] forwardSeen = new long[0];
+    private long[] backwardSeen = new long[0];
+
+    private int bestLength, meetFrom, meetTo;
+    private SolveEventBatch events;
+
+    public BidirectionalBfsSolver(Maze maze) {
+        this.maze = maze;
+        this.kernel = NeighborKernel.of(maze);
+    }
+
+    public BidirectionalBfsSolver(MazeView.Cell[][] grid, int cols, int rows) {
+        this(MazeGrid.fromCells(grid, cols, rows));
+    }
+
+    public SolveResult solve() {
+        return solve(null);
+    }
+
+    // Same solve, streaming expanded/frontier cells of both searches and then the path
+    public SolveResult solve(SolveListener listener) {
+        SolveMetrics metrics = Metrics.current();
+        events = listener == null ? null : new SolveEventBatch(listener);
+        int n = maze.size();
+        int start = maze.start();
+        int goal = maze.goal();
+
+        ensureCapacity(n);
+        int words = (n + 63) >>> 6;
+        Arrays.fill(forwardSeen, 0, words, 0L);
+        Arrays.fill(backwardSeen, 0, words, 0L);
+
+        seed(forwardQueue, forwardSeen, forwardParent, forwardDist, start);
+        seed(backwardQueue, backwardSeen, backwardParent, backwardDist, goal);
+        int forwardHead = 0, forwardTail = 1;
+        int backwardHead = 0, backwardTail = 1;
+
+        bestLength = start == goal ? 0 : Integer.MAX_VALUE;
+        meetFrom = start;
+        meetTo = start;
+        if (metrics != null) metrics.mark(SolveMetrics.SETUP);
+
+        int peakFrontier = 2;
+        while (bestLength == Integer.MAX_VALUE && forwardHead < forwardTail && backwardHead < backwardTail) {
+            SolverExecutor.throwIfCancelled();
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                int levelEnd = forwardTail;
+                forwardTail = expandLevel(forwardQueue, forwardHead, levelEnd, forwardSeen, forwardParent, forwardDist,
+                        backwardSeen, backwardDist, true);
+                forwardHead = levelEnd;
+            } else {
+                int levelEnd = backwardTail;
+                backwardTail = expandLevel(backwardQueue, backwardHead, levelEnd, backwardSeen, backwardParent, backwardDist,
+                        forwardSeen, forwardDist, false);
+                backwardHead = levelEnd;
+            }
+            peakFrontier = Math.max(peakFrontier, forwardTail - forwardHead + backwardTail - backwardHead);
+        }
+        if (metrics != null) {
+            metrics.mark(SolveMetrics.SEARCH);
+            metrics.expanded = forwardHead + backwardHead;
+            metrics.addQueue(forwardTail + backwardTail, forwardHead + backwardHead, 0, peakFrontier);
+        }
+
+        List<MazeView.Cell> path = reconstructPath(start, goal);
+        if (events != null) {
+            events.addPath(maze, path);
+            events.flush();
+            events = null;
+        }
+
+        long[] visitedBits = new long[words];
+        int visitedCount = 0;
+        for (int i = 0; i < words; i++) {
+            visitedBits[i] = forwardSeen[i] | backwardSeen[i];
+            visitedCount += Long.bitCount(visitedBits[i]);
+        }
+        if (metrics != null) metrics.mark(SolveMetrics.PATH);
+        return new SolveResult(path, new VisitedCellSet(maze, visitedBits, visitedCount));
+    }
+
+    private void seed(int[] queue, long[] seen, int[] parent, int[] dist, int cell) {
+        queue[0] = cell;
+        seen[cell >>> 6] |= 1L << cell;
+        parent[cell] = -1;
+        dist[cell] = 0;
+        if (events != null) events.add(SolveListener.FRONTIER, cell);
+    }
+
+    // Expand queue[from, to) and return the new tail. Meetings with the other search
+    // are recorded as (forward cell, backward cell) pairs.
+    private int expandLevel(int[] queue, int from, int to, long[] seen, int[] parent, int[] dist,
+                            long[] otherSeen, int[] otherDist, boolean forward) {
+        int tail = to;
+        for (int i = from; i < to; i++) {
+            int current = queue[i];
+            if (events != null) events.add(SolveListener.EXPANDED, current);
+            int open = maze.openSides(current);
+            for (int k = 0, end = kernel.count(open); k < end; k++) {
+                tail = visit(current + kernel.offset(open, k), current, queue, tail, seen, parent, dist, otherSeen, otherDist, forward);
+            }
+        }
+        return tail;
+    }
+
+    private int visit(int next, int current, int[] queue, int tail, long[] seen, int[] parent, int[] dist,
+                      long[] otherSeen, int[] otherDist, boolean forward) {
+        if ((otherSeen[next >>> 6] & (1L << next)) != 0) {
+            int length = dist[current] + 1 + otherDist[next];
+            if (length < bestLength) {
+                bestLength = length;
+                meetFrom = forward ? current : next;
+                meetTo = forward ? next : current;
+            }
+        }
+        if ((seen[next >>> 6] & (1L << next)) != 0) return tail;
+        seen[next >>> 6] |= 1L << next;
+        parent[next] = current;
+        dist[next] = dist[current] + 1;
+        queue[tail] = next;
+        if (events != null) events.add(SolveListener.FRONTIER, next);
+        return tail + 1;
+    }
+
+    // Forward parents lead from meetFrom back to the start, backward parents from
+    // meetTo on to the goal
+    private List<MazeView.Cell> reconstructPath(int start, int goal) {
+        List<MazeView.Cell> path = new ArrayList<>();
+        if (bestLength == Integer.MAX_VALUE) {
+            path.add(maze.cell(start));
+            return path;
+        }
+        for (int current = meetFrom; current != -1; current = forwardParent[current]) {
+            path.add(maze.cell(current));
+        }
+        Collections.reverse(path);
+        if (meetTo != meetFrom) {
+            for (int current = meetTo; current != -1; current = backwardParent[current]) {
+                path.add(maze.cell(current));
+            }
+        }
+        return path;
+    }
+
+    private void ensureCapacity(int n) {
+        int words = (n + 63) >>> 6;
+        if (forwardQueue.length < n) {
+            forwardQueue = new int[n];
+            backwardQueue = new int[n];
+            forwardParent = new int[n];
+            backwardParent = new int[n];
+            forwardDist = new int[n];
+            backwardDist = new int[n];
+        }
+        if (forwardSeen.length < words) {
+            forwardSeen = new long[words];
+            backwardSeen = new long[words];
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.mazesolver;
+
+import java.util.Arrays;
+
+// Monotone priority queue of cell ids with small integer keys (Dial's buckets). Every
+// queued key lies within maxStep of the last popped one, so a ring of maxStep + 1
+// buckets holds them all; each bucket is an intrusive doubly linked list through
+// next[]/prev[], which makes push, decrease and pop O(1) apart from skipping empty
+// buckets. The caller tracks which ids are queued, as Dijkstra's seen/closed bits do.
+public class BucketQueue {
+
+    private int[] heads = new int[0];
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+    private int[] keys = new int[0];
+    private int mask;
+    private int size;
+    private int current;
+    // Operation counts since the last reset, for SolveMetrics
+    private int pushes, pops, updates, peakSize;
+
+    // Make room for ids in [0, n) and keys up to maxStep past the smallest queued key
+    public void reset(int n, int maxStep) {
+        if (next.length < n) {
+            next = new int[n];
+            prev = new int[n];
+            keys = new int[n];
+        }
+        int buckets = Integer.highestOneBit(Math.max(1, maxStep)) << 1;
+        if (heads.length < buckets) heads = new int[buckets];
+        mask = buckets - 1;
+        Arrays.fill(heads, 0, buckets, -1);
+        size = 0;
+        current = 0;
+        pushes = pops = updates = peakSize = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int key(int id) {
+        return keys[id];
+    }
+
+    public int pushCount() {
+        return pushes;
+    }
+
+    public int popCount() {
+        return pops;
+    }
+
+    public int updateCount() {
+        return updates;
+    }
+
+    public int peakSize() {
+        return peakSize;
+    }
+
+    public void push(int id, int key) {
+        pushes++;
+        link(id, key);
+    }
+
+    // Move a queued id to a smaller key
+    public void decrease(int id, int key) {
+        updates++;
+        unlink(id);
+        size--;
+        link(id, key);
+    }
+
+    // Remove and return an id with the smallest key
+    public int pop() {
+        while (heads[current & mask] < 0) current++;
+        int id = heads[current & mask];
+        unlink(id);
+        size--;
+        pops++;
+        return id;
+    }
+
+    private void link(int id, int key) {
+        keys[id] = key;
+        int bucket = key & mask;
+        int head = heads[bucket];
+        next[id] = head;
+        prev[id] = -1;
+        if (head >= 0) prev[head] = id;
+        heads[bucket] = id;
+        if (size++ == 0 || key < current) current = key;
+        if (size > peakSize) peakSize = size;
+    }
+
+    private void unlink(int id) {
+        int p = prev[id], n = next[id];
+        if (p >= 0) {
+            next[p] = n;
+        } else {
+            heads[keys[id] & mask] = n;
+        }
+        if (n >= 0) prev[n] = p;
+    }
+}
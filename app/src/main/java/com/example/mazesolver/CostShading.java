@@ -0,0 +1,64 @@
+package com.example.mazesolver;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import java.nio.ByteBuffer;
+
+// Terrain cost underlay: one ALPHA_8 texel per cell, darker for dearer cells, drawn
+// scaled up without filtering so every cell is a flat square under the walls. Mazes
+// wider than MazeMipChain.MAX_SIZE keep the dearest cost of each block of cells.
+// Built once per maze and only for mazes that have costs.
+public class CostShading {
+
+    // Alpha of the dearest cell; the walls have to stay readable on top of it
+    private static final int MAX_ALPHA = 160;
+
+    private final Bitmap bitmap;
+    private final int shift; // one texel covers 2^shift x 2^shift cells
+    private final Paint paint = new Paint();
+    private final RectF dst = new RectF();
+
+    public CostShading(Maze maze, int color) {
+        int cols = maze.cols(), rows = maze.rows();
+        int s = 0;
+        while ((Math.max(cols, rows) >> s) > MazeMipChain.MAX_SIZE) s++;
+        shift = s;
+        int w = ((cols - 1) >> s) + 1, h = ((rows - 1) >> s) + 1;
+
+        int min = maze.minCost(), range = Math.max(1, maze.maxCost() - min);
+        byte[] alpha = new byte[w * h];
+        for (int y = 0; y < rows; y++) {
+            int row = (y >> s) * w;
+            for (int x = 0; x < cols; x++) {
+                int a = (maze.cost(maze.id(x, y)) - min) * MAX_ALPHA / range;
+                int i = row + (x >> s);
+                if (a > (alpha[i] & 0xFF)) alpha[i] = (byte) a;
+            }
+        }
+
+        bitmap = Bitmap.createBitmap(w, h, Bitmap.Config.ALPHA_8);
+        int stride = bitmap.getRowBytes();
+        ByteBuffer buffer = ByteBuffer.allocate(stride * h);
+        for (int y = 0; y < h; y++) {
+            buffer.position(y * stride);
+            buffer.put(alpha, y * w, w);
+        }
+        buffer.rewind();
+        bitmap.copyPixelsFromBuffer(buffer);
+        paint.setColor(color);
+    }
+
+    // cellSize is the cell size in canvas units
+    public void draw(Canvas canvas, int cellSize) {
+        float texel = (float) cellSize * (1 << shift);
+        dst.set(0, 0, bitmap.getWidth() * texel, bitmap.getHeight() * texel);
+        canvas.drawBitmap(bitmap, null, dst, paint);
+    }
+
+    public void recycle() {
+        bitmap.recycle();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.mazesolver;
+
+import java.util.*;
+
+// Dijkstra over terrain costs: stepping into a cell costs maze.cost(cell). Costs are
+// small integers, so the queue is a BucketQueue (Dial's algorithm) rather than a
+// heap; every push and pop is O(1) and the scan over empty buckets is bounded by
+// the path cost. On a unit-cost maze this expands the same cells as BFS.
+public class DialSolver {
+
+    private final Maze maze;
+    private final NeighborKernel kernel;
+    private final BucketQueue queue = new BucketQueue();
+    private int[] dist = new int[0];
+    private int[] cameFrom = new int[0];
+    private long[] seen = new long[0];
+    private long[] closed = new long[0];
+    private int closedCount;
+
+    public DialSolver(Maze maze) {
+        this.maze = maze;
+        this.kernel = NeighborKernel.of(maze);
+    }
+
+    public SolveResult solve() {
+        return solve(null);
+    }
+
+    // Same solve, streaming expanded/frontier cells and then the path to the listener
+    public SolveResult solve(SolveListener listener) {
+        SolveMetrics metrics = Metrics.current();
+        SolveEventBatch events = listener == null ? null : new SolveEventBatch(listener);
+        int n = maze.size();
+        int start = maze.start();
+        int goal = maze.goal();
+
+        ensureCapacity(n);
+        int words = (n + 63) >>> 6;
+        Arrays.fill(seen, 0, words, 0L);
+        Arrays.fill(closed, 0, words, 0L);
+        closedCount = 0;
+        queue.reset(n, maze.maxCost());
+        if (metrics != null) metrics.mark(SolveMetrics.SETUP);
+
+        dist[start] = 0;
+        cameFrom[start] = -1;
+        seen[start >>> 6] |= 1L << start;
+        queue.push(start, 0);
+        if (events != null) events.add(SolveListener.FRONTIER, start);
+
+        while (!queue.isEmpty()) {
+            int current = queue.pop();
+            closed[current >>> 6] |= 1L << current;
+            closedCount++;
+            if ((closedCount & 4095) == 0) SolverExecutor.throwIfCancelled();
+            if (events != null) events.add(SolveListener.EXPANDED, current);
+
+            if (current == goal) break;
+
+            int open = maze.openSides(current);
+            int d = dist[current];
+            for (int k = 0, end = kernel.count(open); k < end; k++) {
+                int next = current + kernel.offset(open, k);
+                if ((closed[next >>> 6] & (1L << next)) != 0) continue;
+                int tentative = d + maze.cost(next);
+                if ((seen[next >>> 6] & (1L << next)) == 0) {
+                    seen[next >>> 6] |= 1L << next;
+                    dist[next] = tentative;
+                    cameFrom[next] = current;
+                    queue.push(next, tentative);
+                    if (events != null) events.add(SolveListener.FRONTIER, next);
+                } else if (tentative < dist[next]) {
+                    dist[next] = tentative;
+                    cameFrom[next] = current;
+                    queue.decrease(next, tentative);
+                }
+            }
+        }
+        if (metrics != null) {
+            metrics.mark(SolveMetrics.SEARCH);
+            metrics.expanded = closedCount;
+            metrics.addQueue(queue.pushCount(), queue.popCount(), queue.updateCount(), queue.peakSize());
+        }
+
+        List<MazeView.Cell> path = reconstructPath(start, goal);
+        if (events != null) {
+            events.addPath(maze, path);
+            events.flush();
+        }
+        Set<MazeView.Cell> visited = new VisitedCellSet(maze, Arrays.copyOf(closed, words), closedCount);
+        if (metrics != null) metrics.mark(SolveMetrics.PATH);
+        return new SolveResult(path, visited);
+    }
+
+    // Total cost of the last solve's path, or -1 when the goal was not reached
+    public int pathCost() {
+        int goal = maze.goal();
+        return (seen[goal >>> 6] & (1L << goal)) != 0 ? dist[goal] : -1;
+    }
+
+    private List<MazeView.Cell> reconstructPath(int start, int goal) {
+        List<MazeView.Cell> path = new ArrayList<>();
+
+        if ((seen[goal >>> 6] & (1L << goal)) != 0) {
+            for (int current = goal; current != start; current = cameFrom[current]) {
+                path.add(maze.cell(current));
+            }
+        }
+
+        path.add(maze.cell(start));
+        Collections.reverse(path);
+        return path;
+    }
+
+    private void ensureCapacity(int n) {
+        int words = (n + 63) >>> 6;
+        if (dist.length < n) {
+            dist = new int[n];
+            cameFrom = new int[n];
+        }
+        if (seen.length < words) {
+            seen = new long[words];
+            closed = new long[words];
+        }
+    }
+}
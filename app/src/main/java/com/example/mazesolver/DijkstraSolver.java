@@ -2,77 +2,76 @@ package com.example.mazesolver;
 
 import java.util.*;
 
+// Shortest path by cost. With equal costs everywhere Dijkstra visits cells in BFS
+// order, so that case runs on BfsSearch; mazes with terrain go to DialSolver.
 public class DijkstraSolver {
 
-    private final MazeView.Cell[][] grid;
-    private final int cols;
-    private final int rows;
+    private final Maze maze;
+    private final BfsSearch search;
+    private DialSolver weighted;
 
-    public DijkstraSolver(MazeView.Cell[][] grid, int cols, int rows) {
-        this.grid = grid;
-        this.cols = cols;
-        this.rows = rows;
+    public DijkstraSolver(Maze maze) {
+        this(maze, new BfsSearch());
     }
 
-    public static class Result {
-        public final List<MazeView.Cell> path;
-        public final Set<MazeView.Cell> visited;
-
-        public Result(List<MazeView.Cell> path, Set<MazeView.Cell> visited) {
-            this.path = path;
-            this.visited = visited;
-        }
+    // Share one BfsSearch between solves to reuse its queue, bitset and parent buffers
+    public DijkstraSolver(Maze maze, BfsSearch search) {
+        this.maze = maze;
+        this.search = search;
     }
 
-    public Result solve() {
-        Map<MazeView.Cell, MazeView.Cell> parentMap = new HashMap<>();
-        Queue<MazeView.Cell> queue = new LinkedList<>();
-        Set<MazeView.Cell> visited = new HashSet<>();
-
-        MazeView.Cell start = grid[0][0];
-        MazeView.Cell goal = grid[cols - 1][rows - 1];
-
-        queue.add(start);
-        visited.add(start);
+    public DijkstraSolver(MazeView.Cell[][] grid, int cols, int rows) {
+        this(MazeGrid.fromCells(grid, cols, rows));
+    }
 
-        while (!queue.isEmpty()) {
-            MazeView.Cell current = queue.poll();
+    public SolveResult solve() {
+        return solve(null);
+    }
 
-            if (current.equals(goal)) break;
+    // Same solve, streaming expanded/frontier cells and then the path to the listener
+    public SolveResult solve(SolveListener listener) {
+        if (maze.minCost() != maze.maxCost()) {
+            if (weighted == null) weighted = new DialSolver(maze);
+            return weighted.solve(listener);
+        }
 
-            for (MazeView.Cell neighbor : getNeighbors(current)) {
-                if (!visited.contains(neighbor)) {
-                    visited.add(neighbor);
-                    parentMap.put(neighbor, current);
-                    queue.add(neighbor);
-                }
-            }
+        SolveMetrics metrics = Metrics.current();
+        int start = maze.start();
+        int goal = maze.goal();
+
+        SolveEventBatch events = listener == null ? null : new SolveEventBatch(listener);
+        search.setEvents(events);
+        boolean found;
+        try {
+            found = search.run(maze, start, goal);
+        } finally {
+            search.setEvents(null);
+        }
+        if (metrics != null) {
+            // BfsSearch prepares its buffers inside run(), so setup counts as search here
+            metrics.mark(SolveMetrics.SEARCH);
+            metrics.expanded = search.expandedCount();
+            metrics.addQueue(search.visitedCount(), search.expandedCount(), 0, search.peakQueue());
         }
 
         // Reconstruct path
         List<MazeView.Cell> path = new ArrayList<>();
-        MazeView.Cell step = goal;
-        while (step != null && parentMap.containsKey(step)) {
-            path.add(step);
-            step = parentMap.get(step);
+        if (found) {
+            for (int step = goal; step != start; step = search.parent(step)) {
+                path.add(maze.cell(step));
+            }
         }
 
-        path.add(start);
+        path.add(maze.cell(start));
         Collections.reverse(path);
 
-        return new Result(path, visited);
-    }
-
-    private List<MazeView.Cell> getNeighbors(MazeView.Cell cell) {
-        List<MazeView.Cell> neighbors = new ArrayList<>();
-        int x = cell.x;
-        int y = cell.y;
-
-        if (x > 0 && !cell.leftWall) neighbors.add(grid[x - 1][y]);
-        if (x < cols - 1 && !cell.rightWall) neighbors.add(grid[x + 1][y]);
-        if (y > 0 && !cell.topWall) neighbors.add(grid[x][y - 1]);
-        if (y < rows - 1 && !cell.bottomWall) neighbors.add(grid[x][y + 1]);
+        if (events != null) {
+            events.addPath(maze, path);
+            events.flush();
+        }
 
-        return neighbors;
+        Set<MazeView.Cell> visited = new VisitedCellSet(maze, search.visitedSnapshot(maze.size()), search.visitedCount());
+        if (metrics != null) metrics.mark(SolveMetrics.PATH);
+        return new SolveResult(path, visited);
     }
 }
@@ -0,0 +1,62 @@
+package com.example.mazesolver;
+
+import java.util.Arrays;
+
+// Cost from every cell to the maze goal, found by one backwards Dijkstra (Dial's
+// buckets, so unit mazes get BFS order) from the goal. Walls are two-sided, so
+// reversing an edge only moves its cost: stepping u -> v costs cost(v), which the
+// backwards search charges when it goes from v to u. Built once per maze layout;
+// after that any cell's remaining cost is a single array read.
+public class DistanceField {
+
+    private final Maze maze;
+    private final int[] dist;
+
+    private DistanceField(Maze maze, int[] dist) {
+        this.maze = maze;
+        this.dist = dist;
+    }
+
+    public static DistanceField toGoal(Maze maze) {
+        int n = maze.size();
+        int goal = maze.goal();
+        NeighborKernel kernel = NeighborKernel.of(maze);
+        BucketQueue queue = new BucketQueue();
+        queue.reset(n, maze.maxCost());
+        int[] dist = new int[n];
+        Arrays.fill(dist, -1);
+        long[] closed = new long[(n + 63) >>> 6];
+
+        dist[goal] = 0;
+        queue.push(goal, 0);
+        int settled = 0;
+        while (!queue.isEmpty()) {
+            int v = queue.pop();
+            closed[v >>> 6] |= 1L << v;
+            if ((++settled & 4095) == 0) SolverExecutor.throwIfCancelled();
+            int open = maze.openSides(v);
+            int d = dist[v] + maze.cost(v);
+            for (int k = 0, end = kernel.count(open); k < end; k++) {
+                int u = v + kernel.offset(open, k);
+                if ((closed[u >>> 6] & (1L << u)) != 0) continue;
+                if (dist[u] < 0) {
+                    dist[u] = d;
+                    queue.push(u, d);
+                } else if (d < dist[u]) {
+                    dist[u] = d;
+                    queue.decrease(u, d);
+                }
+            }
+        }
+        return new DistanceField(maze, dist);
+    }
+
+    public Maze maze() {
+        return maze;
+    }
+
+    // Cheapest cost from the cell to the goal, or -1 when the goal cannot be reached
+    public int distance(int id) {
+        return dist[id];
+    }
+}
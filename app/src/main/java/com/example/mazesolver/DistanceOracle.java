@@ -0,0 +1,23 @@
+package com.example.mazesolver;
+
+import java.util.List;
+
+// Answers many start-goal queries on one maze after a single preprocessing pass.
+// Cells are ids as in Maze. An oracle keeps scratch buffers, so one instance
+// should only be queried from one thread at a time.
+public interface DistanceOracle {
+
+    // Steps on a shortest route between the cells, or -1 when they are not connected
+    int distance(int from, int to);
+
+    // A shortest route from one cell to the other; just [from] when there is none
+    List<MazeView.Cell> path(int from, int to);
+
+    // Perfect mazes (a spanning tree of the grid) get the LCA index, anything with
+    // loops or unreachable parts gets landmark-guided search
+    static DistanceOracle build(Maze maze) {
+        return TreeDistanceOracle.isTree(maze)
+                ? new TreeDistanceOracle(maze)
+                : new LandmarkDistanceOracle(LandmarkTable.build(maze, LandmarkDistanceOracle.DEFAULT_LANDMARKS));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.mazesolver;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free histogram of non-negative longs in power-of-two buckets: bucket b holds
+// values in [2^(b-1), 2^b), bucket 0 holds 0. Percentiles are bucket upper bounds,
+// so they are within a factor of two, which is plenty for spotting regressions.
+public class Histogram {
+
+    private final AtomicLongArray buckets = new AtomicLongArray(64);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) return;
+        buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+        count.increment();
+        sum.add(value);
+        long seen;
+        while (value > (seen = max.get()) && !max.compareAndSet(seen, value)) {
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double mean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    // Upper bound of the bucket holding the p-th fraction of the values, 0 <= p <= 1
+    public long percentile(double p) {
+        long n = count.sum();
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(p * n);
+        long seen = 0;
+        for (int b = 0; b < 64; b++) {
+            seen += buckets.get(b);
+            // 1L << 63 wraps, and minus one lands on Long.MAX_VALUE as wanted
+            if (seen >= Math.max(1, rank)) return Math.min(max.get(), (1L << b) - 1);
+        }
+        return max.get();
+    }
+}
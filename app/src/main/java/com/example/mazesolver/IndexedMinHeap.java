@@ -0,0 +1,179 @@
+package com.example.mazesolver;
+
+// Binary min-heap of cell ids keyed by a long, with an id -> slot index so a queued
+// id can have its key lowered in O(log n). Keys live next to the ids in heap order,
+// so sifting never has to look anything up by id.
+public class IndexedMinHeap {
+
+    private int[] ids = new int[64];
+    private long[] keys = new long[64];
+    private int[] slot = new int[0];
+    private int size;
+    // Operation counts since the last reset, for SolveMetrics
+    private int pushes, pops, updates, peakSize;
+
+    // Make room for ids in [0, n); existing contents are dropped
+    public void reset(int n) {
+        if (slot.length < n) slot = new int[n];
+        size = 0;
+        pushes = pops = updates = peakSize = 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // slot[] is never cleared, so an entry only counts if it points back at the id
+    public boolean contains(int id) {
+        int i = slot[id];
+        return i < size && ids[i] == id;
+    }
+
+    public long key(int id) {
+        return keys[slot[id]];
+    }
+
+    public long peekKey() {
+        return keys[0];
+    }
+
+    public int peek() {
+        return ids[0];
+    }
+
+    public int pushCount() {
+        return pushes;
+    }
+
+    public int popCount() {
+        return pops;
+    }
+
+    // Key changes of queued ids, and removals
+    public int updateCount() {
+        return updates;
+    }
+
+    public int peakSize() {
+        return peakSize;
+    }
+
+    public void push(int id, long key) {
+        if (size == ids.length) grow();
+        int i = size++;
+        pushes++;
+        if (size > peakSize) peakSize = size;
+        ids[i] = id;
+        keys[i] = key;
+        slot[id] = i;
+        siftUp(i);
+    }
+
+    // Insert the id, or lower its key if it is already queued with a larger one.
+    // Returns false when the id was queued with a key that is not larger.
+    public boolean pushOrDecrease(int id, long key) {
+        if (!contains(id)) {
+            push(id, key);
+            return true;
+        }
+        int i = slot[id];
+        if (key >= keys[i]) return false;
+        updates++;
+        keys[i] = key;
+        siftUp(i);
+        return true;
+    }
+
+    // Insert the id, or move it to the new key in either direction
+    public void pushOrUpdate(int id, long key) {
+        if (!contains(id)) {
+            push(id, key);
+            return;
+        }
+        int i = slot[id];
+        updates++;
+        keys[i] = key;
+        siftUp(i);
+        siftDown(slot[id]);
+    }
+
+    // Take a queued id out of the heap
+    public void remove(int id) {
+        int i = slot[id];
+        int last = --size;
+        updates++;
+        if (i == last) return;
+        ids[i] = ids[last];
+        keys[i] = keys[last];
+        slot[ids[i]] = i;
+        int moved = ids[i];
+        siftUp(i);
+        siftDown(slot[moved]);
+    }
+
+    public int pop() {
+        int top = ids[0];
+        pops++;
+        int last = --size;
+        if (last > 0) {
+            ids[0] = ids[last];
+            keys[0] = keys[last];
+            slot[ids[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int id = ids[i];
+        long key = keys[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) break;
+            ids[i] = ids[parent];
+            keys[i] = keys[parent];
+            slot[ids[i]] = i;
+            i = parent;
+        }
+        ids[i] = id;
+        keys[i] = key;
+        slot[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = ids[i];
+        long key = keys[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child]) child = right;
+            if (key <= keys[child]) break;
+            ids[i] = ids[child];
+            keys[i] = keys[child];
+            slot[ids[i]] = i;
+            i = child;
+        }
+        ids[i] = id;
+        keys[i] = key;
+        slot[id] = i;
+    }
+
+    private void grow() {
+        int capacity = ids.length << 1;
+        int[] biggerIds = new int[capacity];
+        long[] biggerKeys = new long[capacity];
+        System.arraycopy(ids, 0, biggerIds, 0, size);
+        System.arraycopy(keys, 0, biggerKeys, 0, size);
+        ids = biggerIds;
+        keys = biggerKeys;
+    }
+}
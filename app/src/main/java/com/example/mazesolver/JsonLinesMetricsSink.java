@@ -0,0 +1,30 @@
+package com.example.mazesolver;
+
+import java.io.*;
+
+// Appends one JSON object per solve to a file, flushed per line so the file stays
+// readable if the process dies
+public class JsonLinesMetricsSink implements MetricsSink, Closeable {
+
+    private final Writer out;
+
+    public JsonLinesMetricsSink(File file) throws IOException {
+        out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), "UTF-8"));
+    }
+
+    @Override
+    public synchronized void onSolve(SolveMetrics metrics) {
+        try {
+            out.write(metrics.toJson());
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.mazesolver;
+
+import java.util.*;
+
+// Compressed form of a maze for start-goal searches. Dead ends are filled first:
+// cells with a single opening (other than start and goal) are removed over and over,
+// which can never cut a start-goal route. Of what is left, cells with exactly two
+// openings are corridor cells; every other cell, plus start and goal, is a node.
+// Each corridor becomes one weighted edge between the nodes at its ends, stored in
+// CSR arrays. A perfect maze collapses to just its solution path.
+//
+// Edges remember the side they leave their source through, so a corridor is
+// walked again only when a path is expanded back to cells.
+public class JunctionGraph {
+
+    private final Maze maze;
+    private final int start, goal;
+    private final long[] filled;
+    private final long[] isNode;
+    private final int filledCount;
+
+    // nodeCell is sorted by cell id; the edges of node i are edgeStart[i] .. edgeStart[i + 1]
+    private final int[] nodeCell;
+    private final int[] edgeStart;
+    private final int[] edgeTarget;
+    private final int[] edgeWeight;
+    private final byte[] edgeSide;
+
+    private JunctionGraph(Maze maze, int start, int goal, long[] filled, int filledCount, long[] isNode,
+                          int[] nodeCell, int[] edgeStart, int[] edgeTarget, int[] edgeWeight, byte[] edgeSide) {
+        this.maze = maze;
+        this.start = start;
+        this.goal = goal;
+        this.filled = filled;
+        this.filledCount = filledCount;
+        this.isNode = isNode;
+        this.nodeCell = nodeCell;
+        this.edgeStart = edgeStart;
+        this.edgeTarget = edgeTarget;
+        this.edgeWeight = edgeWeight;
+        this.edgeSide = edgeSide;
+    }
+
+    public static JunctionGraph build(Maze maze) {
+        return build(maze, maze.start(), maze.goal());
+    }
+
+    public static JunctionGraph build(Maze maze, int start, int goal) {
+        int n = maze.size();
+        long[] filled = new long[(n + 63) >>> 6];
+        int filledCount = fillDeadEnds(maze, start, goal, filled);
+
+        // Nodes, in id order so they can be looked up by binary search
+        long[] isNode = new long[filled.length];
+        int nodes = 0;
+        for (int id = 0; id < n; id++) {
+            if (isSet(filled, id)) continue;
+            if (id == start || id == goal || Integer.bitCount(openSides(maze, filled, id)) != 2) {
+                isNode[id >>> 6] |= 1L << id;
+                nodes++;
+            }
+        }
+        int[] nodeCell = new int[nodes];
+        for (int id = 0, i = 0; i < nodes; id++) {
+            if (isSet(isNode, id)) nodeCell[i++] = id;
+        }
+
+        // Walk every corridor from both ends; edges come out grouped by source node
+        int[] edgeStart = new int[nodes + 1];
+        int[] edgeTarget = new int[16];
+        int[] edgeWeight = new int[16];
+        byte[] edgeSide = new byte[16];
+        int edges = 0;
+        for (int i = 0; i < nodes; i++) {
+            edgeStart[i] = edges;
+            int cell = nodeCell[i];
+            int open = openSides(maze, filled, cell);
+            for (int side : MazeGrid.SIDES) {
+                if ((open & side) == 0) continue;
+                int prev = cell;
+                int current = maze.neighbor(cell, side);
+                int weight = 1;
+                while (!isSet(isNode, current)) {
+                    int next = corridorNext(maze, filled, current, prev);
+                    prev = current;
+                    current = next;
+                    weight++;
+                }
+                // A corridor that loops back to the same node never helps a simple path
+                if (current == cell) continue;
+                if (edges == edgeTarget.length) {
+                    edgeTarget = Arrays.copyOf(edgeTarget, edges * 2);
+                    edgeWeight = Arrays.copyOf(edgeWeight, edges * 2);
+                    edgeSide = Arrays.copyOf(edgeSide, edges * 2);
+                }
+                edgeTarget[edges] = Arrays.binarySearch(nodeCell, current);
+                edgeWeight[edges] = weight;
+                edgeSide[edges] = (byte) side;
+                edges++;
+            }
+        }
+        edgeStart[nodes] = edges;
+
+        return new JunctionGraph(maze, start, goal, filled, filledCount, isNode, nodeCell, edgeStart,
+                Arrays.copyOf(edgeTarget, edges), Arrays.copyOf(edgeWeight, edges), Arrays.copyOf(edgeSide, edges));
+    }
+
+    // Peel cells with at most one opening until none are left; returns how many were filled
+    private static int fillDeadEnds(Maze maze, int start, int goal, long[] filled) {
+        int n = maze.size();
+        byte[] degree = new byte[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int id = 0; id < n; id++) {
+            degree[id] = (byte) Integer.bitCount(maze.openSides(id));
+            if (degree[id] <= 1 && id != start && id != goal) queue[tail++] = id;
+        }
+
+        int count = 0;
+        for (int head = 0; head < tail; head++) {
+            int cell = queue[head];
+            filled[cell >>> 6] |= 1L << cell;
+            count++;
+            int open = openSides(maze, filled, cell);
+            for (int side : MazeGrid.SIDES) {
+                if ((open & side) == 0) continue;
+                int next = maze.neighbor(cell, side);
+                if (--degree[next] == 1 && next != start && next != goal) queue[tail++] = next;
+            }
+        }
+        return count;
+    }
+
+    // Open sides of a cell that lead to cells still in the graph
+    private static int openSides(Maze maze, long[] filled, int id) {
+        int open = maze.openSides(id);
+        int mask = open;
+        for (int side : MazeGrid.SIDES) {
+            if ((open & side) != 0 && isSet(filled, maze.neighbor(id, side))) mask &= ~side;
+        }
+        return mask;
+    }
+
+    // The way on from a corridor cell, not back to prev
+    private static int corridorNext(Maze maze, long[] filled, int cell, int prev) {
+        int open = openSides(maze, filled, cell);
+        for (int side : MazeGrid.SIDES) {
+            if ((open & side) == 0) continue;
+            int next = maze.neighbor(cell, side);
+            if (next != prev) return next;
+        }
+        throw new IllegalStateException("Corridor cell " + cell + " has no way on");
+    }
+
+    private static boolean isSet(long[] bits, int id) {
+        return (bits[id >>> 6] & (1L << id)) != 0;
+    }
+
+    public Maze maze() {
+        return maze;
+    }
+
+    public int nodeCount() {
+        return nodeCell.length;
+    }
+
+    // Directed edge count; every corridor appears once in each direction
+    public int edgeCount() {
+        return edgeTarget.length;
+    }
+
+    public int filledCount() {
+        return filledCount;
+    }
+
+    public boolean isFilled(int cell) {
+        return isSet(filled, cell);
+    }
+
+    public int nodeCell(int node) {
+        return nodeCell[node];
+    }
+
+    // Node index of a cell, or -1 when the cell is a corridor or was filled
+    public int nodeOf(int cell) {
+        int node = Arrays.binarySearch(nodeCell, cell);
+        return node >= 0 ? node : -1;
+    }
+
+    public int startNode() {
+        return nodeOf(start);
+    }
+
+    public int goalNode() {
+        return nodeOf(goal);
+    }
+
+    public int firstEdge(int node) {
+        return edgeStart[node];
+    }
+
+    public int endEdge(int node) {
+        return edgeStart[node + 1];
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeTarget[edge];
+    }
+
+    // Steps along the corridor, i.e. cells entered from the source to the target
+    public int edgeWeight(int edge) {
+        return edgeWeight[edge];
+    }
+
+    // Append the cells of an edge after its source cell, ending with the target cell
+    public void expandEdge(int sourceNode, int edge, List<MazeView.Cell> out) {
+        int prev = nodeCell[sourceNode];
+        int current = maze.neighbor(prev, edgeSide[edge]);
+        out.add(maze.cell(current));
+        while (!isSet(isNode, current)) {
+            int next = corridorNext(maze, filled, current, prev);
+            prev = current;
+            current = next;
+            out.add(maze.cell(current));
+        }
+    }
+
+    // Cells of a route given as its first node and the edges taken from there
+    public List<MazeView.Cell> expand(int firstNode, int[] edges, int count) {
+        List<MazeView.Cell> path = new ArrayList<>();
+        path.add(maze.cell(nodeCell[firstNode]));
+        int node = firstNode;
+        for (int i = 0; i < count; i++) {
+            expandEdge(node, edges[i], path);
+            node = edgeTarget[edges[i]];
+        }
+        return path;
+    }
+
+    // Shortest start-goal path in cells; A* uses the Manhattan distance between node
+    // cells, which never overestimates a corridor's length
+    public List<MazeView.Cell> shortestPath(boolean aStar) {
+        int from = startNode(), to = goalNode();
+        int nodes = nodeCount();
+        int[] gScore = new int[nodes];
+        int[] cameFrom = new int[nodes];
+        int[] cameBy = new int[nodes];
+        long[] closed = new long[(nodes + 63) >>> 6];
+        Arrays.fill(gScore, Integer.MAX_VALUE);
+        IndexedMinHeap openSet = new IndexedMinHeap();
+        openSet.reset(nodes);
+
+        gScore[from] = 0;
+        cameFrom[from] = -1;
+        openSet.push(from, key(0, aStar ? heuristic(from, to) : 0));
+        while (!openSet.isEmpty()) {
+            int current = openSet.pop();
+            if (current == to) break;
+            closed[current >>> 6] |= 1L << current;
+            for (int e = edgeStart[current]; e < edgeStart[current + 1]; e++) {
+                int next = edgeTarget[e];
+                if (isSet(closed, next)) continue;
+                int g = gScore[current] + edgeWeight[e];
+                if (g >= gScore[next]) continue;
+                gScore[next] = g;
+                cameFrom[next] = current;
+                cameBy[next] = e;
+                openSet.pushOrDecrease(next, key(g, g + (aStar ? heuristic(next, to) : 0)));
+            }
+        }
+
+        if (gScore[to] == Integer.MAX_VALUE) {
+            List<MazeView.Cell> path = new ArrayList<>();
+            path.add(maze.cell(start));
+            return path;
+        }
+        int count = 0;
+        for (int node = to; node != from; node = cameFrom[node]) count++;
+        int[] edges = new int[count];
+        for (int node = to, i = count - 1; node != from; node = cameFrom[node], i--) {
+            edges[i] = cameBy[node];
+        }
+        return expand(from, edges, count);
+    }
+
+    // Corridor distance in steps from every node to the target node; MAX_VALUE where
+    // it cannot be reached. Edges run both ways, so this is also the distance from it.
+    public int[] distancesTo(int target) {
+        int nodes = nodeCount();
+        int[] dist = new int[nodes];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        IndexedMinHeap openSet = new IndexedMinHeap();
+        openSet.reset(nodes);
+        dist[target] = 0;
+        openSet.push(target, 0);
+        while (!openSet.isEmpty()) {
+            int current = openSet.pop();
+            for (int e = edgeStart[current]; e < edgeStart[current + 1]; e++) {
+                int next = edgeTarget[e];
+                int d = dist[current] + edgeWeight[e];
+                if (d < dist[next]) {
+                    dist[next] = d;
+                    openSet.pushOrDecrease(next, d);
+                }
+            }
+        }
+        return dist;
+    }
+
+    private static long key(int g, int f) {
+        return ((long) f << 32) | (Integer.MAX_VALUE - g);
+    }
+
+    private int heuristic(int node, int target) {
+        int a = nodeCell[node], b = nodeCell[target];
+        return Math.abs(maze.x(a) - maze.x(b)) + Math.abs(maze.y(a) - maze.y(b));
+    }
+}
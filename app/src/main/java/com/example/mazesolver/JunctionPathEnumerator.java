@@ -0,0 +1,136 @@
+package com.example.mazesolver;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// PathEnumerator over a JunctionGraph: the depth-first walk moves node to node
+// along whole corridors, so it makes one step per junction instead of one per
+// cell. Simple start-goal paths in the maze and simple node paths in the graph
+// are the same thing, because a simple path never enters a filled dead end.
+// Branches are cut with the exact corridor distance from each node to the goal,
+// computed once up front, and each node's edges are tried in order of that
+// distance, so the walk heads for the goal before it wanders.
+public class JunctionPathEnumerator implements Iterator<List<MazeView.Cell>> {
+
+    private final JunctionGraph graph;
+    private final int startNode, goalNode;
+    private final int[] toGoal;
+    private final int maxLength;
+    private int remaining;
+
+    // Per depth: the node, its edges in the order to try them (four slots), how
+    // many of those are left, the edge that led to it and the path length in cells
+    private final int[] nodeStack;
+    private final int[] edgeOrder;
+    private final int[] edgesLeft;
+    private final int[] edgeTaken;
+    private final int[] lengthAt;
+    private final long[] onPath;
+    private int depth;
+    private int steps;
+
+    private List<MazeView.Cell> next;
+
+    public JunctionPathEnumerator(JunctionGraph graph, int maxPaths, int maxLength) {
+        this.graph = graph;
+        this.startNode = graph.startNode();
+        this.goalNode = graph.goalNode();
+        this.toGoal = graph.distancesTo(goalNode);
+        this.maxLength = maxLength;
+        this.remaining = maxPaths;
+
+        int nodes = graph.nodeCount();
+        this.nodeStack = new int[nodes];
+        this.edgeOrder = new int[nodes * 4];
+        this.edgesLeft = new int[nodes];
+        this.edgeTaken = new int[nodes + 1];
+        this.lengthAt = new int[nodes];
+        this.onPath = new long[(nodes + 63) >>> 6];
+
+        if (maxLength > 0 && maxPaths > 0) {
+            if (startNode == goalNode) {
+                next = graph.expand(startNode, edgeTaken, 0);
+            } else {
+                push(startNode, -1, 1);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && remaining > 0) next = advance();
+        return next != null;
+    }
+
+    @Override
+    public List<MazeView.Cell> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        List<MazeView.Cell> path = next;
+        next = null;
+        remaining--;
+        return path;
+    }
+
+    private List<MazeView.Cell> advance() {
+        while (depth > 0) {
+            if ((++steps & 4095) == 0) SolverExecutor.throwIfCancelled();
+            int top = depth - 1;
+            if (edgesLeft[top] == 0) {
+                pop();
+                continue;
+            }
+            int edge = edgeOrder[top * 4 + --edgesLeft[top]];
+
+            int target = graph.edgeTarget(edge);
+            if (isOnPath(target)) continue;
+            int length = lengthAt[top] + graph.edgeWeight(edge);
+            // Even the shortest way on to the goal would exceed the length cap
+            if (toGoal[target] == Integer.MAX_VALUE || length + toGoal[target] > maxLength) continue;
+
+            if (target == goalNode) {
+                edgeTaken[depth] = edge;
+                int[] edges = new int[depth];
+                System.arraycopy(edgeTaken, 1, edges, 0, depth);
+                return graph.expand(startNode, edges, depth);
+            }
+            push(target, edge, length);
+        }
+        return null;
+    }
+
+    private void push(int node, int edge, int length) {
+        nodeStack[depth] = node;
+        // Insertion sort, furthest from the goal first, since they are taken from the back
+        int base = depth * 4;
+        int count = 0;
+        for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+            long rank = rank(e);
+            int i = count++;
+            while (i > 0 && rank(edgeOrder[base + i - 1]) < rank) {
+                edgeOrder[base + i] = edgeOrder[base + i - 1];
+                i--;
+            }
+            edgeOrder[base + i] = e;
+        }
+        edgesLeft[depth] = count;
+        edgeTaken[depth] = edge;
+        lengthAt[depth] = length;
+        onPath[node >>> 6] |= 1L << node;
+        depth++;
+    }
+
+    // Unreachable targets have MAX_VALUE distance; long keeps them last instead of overflowing
+    private long rank(int edge) {
+        return (long) graph.edgeWeight(edge) + toGoal[graph.edgeTarget(edge)];
+    }
+
+    private void pop() {
+        int node = nodeStack[--depth];
+        onPath[node >>> 6] &= ~(1L << node);
+    }
+
+    private boolean isOnPath(int node) {
+        return (onPath[node >>> 6] & (1L << node)) != 0;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.mazesolver;
+
+import java.util.*;
+
+// Yen's k-shortest simple paths on the unit-cost maze graph. Each call to next()
+// derives the following path from the ones already returned, so the best N routes
+// come out in order of length without enumerating all of them.
+public class KShortestPaths implements Iterator<List<MazeView.Cell>> {
+
+    private final Maze maze;
+    private final int start, goal;
+    private final int maxLength;
+    private int remaining;
+
+    private final BfsSearch search = new BfsSearch();
+    private final long[] blocked;
+    private final List<int[]> found = new ArrayList<>();
+    private final PriorityQueue<int[]> candidates = new PriorityQueue<>((a, b) -> Integer.compare(a.length, b.length));
+    private final Set<PathKey> known = new HashSet<>();
+    private boolean started;
+
+    public KShortestPaths(Maze maze, int start, int goal, int maxPaths, int maxLength) {
+        this.maze = maze;
+        this.start = start;
+        this.goal = goal;
+        this.maxLength = maxLength;
+        this.remaining = maxPaths;
+        this.blocked = new long[(maze.size() + 63) >>> 6];
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (remaining <= 0) return false;
+        if (!started) {
+            started = true;
+            if (search.run(maze, start, goal)) {
+                offer(spurPath(new int[0], 0, start));
+            }
+        }
+        return !candidates.isEmpty();
+    }
+
+    @Override
+    public List<MazeView.Cell> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        int[] path = candidates.poll();
+        found.add(path);
+        remaining--;
+        if (remaining > 0) addSpurCandidates(path);
+
+        List<MazeView.Cell> cells = new ArrayList<>(path.length);
+        for (int id : path) {
+            cells.add(maze.cell(id));
+        }
+        return cells;
+    }
+
+    // Deviate from the previous path at every cell: keep its prefix (root), forbid
+    // the root cells and the edges earlier paths took out of the spur cell, and
+    // route the rest with BFS.
+    private void addSpurCandidates(int[] previous) {
+        for (int i = 0; i < previous.length - 1; i++) {
+            SolverExecutor.throwIfCancelled();
+            int spur = previous[i];
+
+            int sides = ~0;
+            for (int[] path : found) {
+                if (path.length > i + 1 && samePrefix(path, previous, i + 1)) {
+                    sides &= ~sideTowards(spur, path[i + 1]);
+                }
+            }
+
+            Arrays.fill(blocked, 0L);
+            for (int j = 0; j < i; j++) {
+                blocked[previous[j] >>> 6] |= 1L << previous[j];
+            }
+
+            if (search.run(maze, spur, goal, blocked, sides)) {
+                offer(spurPath(previous, i, spur));
+            }
+        }
+    }
+
+    // previous[0..rootLength) followed by the BFS route from spur to goal
+    private int[] spurPath(int[] previous, int rootLength, int spur) {
+        int spurLength = 1;
+        for (int step = goal; step != spur; step = search.parent(step)) {
+            spurLength++;
+        }
+        int[] path = new int[rootLength + spurLength];
+        System.arraycopy(previous, 0, path, 0, rootLength);
+        int i = path.length - 1;
+        for (int step = goal; step != spur; step = search.parent(step)) {
+            path[i--] = step;
+        }
+        path[i] = spur;
+        return path;
+    }
+
+    private void offer(int[] path) {
+        if (path.length > maxLength) return;
+        if (known.add(new PathKey(path))) {
+            candidates.add(path);
+        }
+    }
+
+    // Vertical steps first: in a single-column maze the cell below is also id + 1
+    private int sideTowards(int from, int to) {
+        int cols = maze.cols();
+        if (to == from + cols) return MazeGrid.BOTTOM;
+        if (to == from - cols) return MazeGrid.TOP;
+        return to > from ? MazeGrid.RIGHT : MazeGrid.LEFT;
+    }
+
+    private static boolean samePrefix(int[] a, int[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) return false;
+        }
+        return true;
+    }
+
+    private static final class PathKey {
+        private final int[] ids;
+        private final int hash;
+
+        PathKey(int[] ids) {
+            this.ids = ids;
+            this.hash = Arrays.hashCode(ids);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof PathKey && Arrays.equals(ids, ((PathKey) obj).ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
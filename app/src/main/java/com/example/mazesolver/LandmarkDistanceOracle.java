@@ -0,0 +1,127 @@
+package com.example.mazesolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Distances in a maze with loops. lowerBound() is a pure table lookup; exact
+// distances run A* with the landmark bound as heuristic, which is consistent, so
+// the first time the target is popped its distance is final. Per-cell state is
+// tagged with a query number instead of being cleared, so a query only touches
+// the cells it explores.
+public class LandmarkDistanceOracle implements DistanceOracle {
+
+    public static final int DEFAULT_LANDMARKS = 8;
+
+    private final LandmarkTable table;
+    private final Maze maze;
+    private final NeighborKernel kernel;
+    private final IndexedMinHeap openSet = new IndexedMinHeap();
+    private final int[] seenIn;
+    private final int[] closedIn;
+    private final int[] gScore;
+    private final int[] cameFrom;
+    private final int[] targetDist;
+    private int query;
+
+    public LandmarkDistanceOracle(LandmarkTable table) {
+        this.table = table;
+        this.maze = table.maze();
+        this.kernel = NeighborKernel.of(maze);
+        int n = maze.size();
+        seenIn = new int[n];
+        closedIn = new int[n];
+        gScore = new int[n];
+        cameFrom = new int[n];
+        targetDist = new int[table.count()];
+    }
+
+    public LandmarkTable table() {
+        return table;
+    }
+
+    public int lowerBound(int from, int to) {
+        return table.lowerBound(from, to);
+    }
+
+    @Override
+    public int distance(int from, int to) {
+        return search(from, to) ? gScore[to] : -1;
+    }
+
+    @Override
+    public List<MazeView.Cell> path(int from, int to) {
+        List<MazeView.Cell> path = new ArrayList<>();
+        if (search(from, to)) {
+            for (int current = to; current != from; current = cameFrom[current]) {
+                path.add(maze.cell(current));
+            }
+        }
+        path.add(maze.cell(from));
+        Collections.reverse(path);
+        return path;
+    }
+
+    private boolean search(int from, int to) {
+        int count = table.count();
+        for (int i = 0; i < count; i++) {
+            int dTo = table.distance(i, to);
+            int dFrom = table.distance(i, from);
+            // Same component as a landmark that reaches only one of them: no route
+            if ((dTo < 0) != (dFrom < 0)) return false;
+            targetDist[i] = dTo;
+        }
+        if (++query == 0) {
+            // Tags wrapped around; start over so no stale cell looks current
+            Arrays.fill(seenIn, 0);
+            Arrays.fill(closedIn, 0);
+            query = 1;
+        }
+        openSet.reset(maze.size());
+        seenIn[from] = query;
+        gScore[from] = 0;
+        cameFrom[from] = -1;
+        openSet.push(from, key(0, heuristic(from)));
+
+        int expanded = 0;
+        while (!openSet.isEmpty()) {
+            int current = openSet.pop();
+            if (current == to) return true;
+            closedIn[current] = query;
+            if ((++expanded & 4095) == 0) SolverExecutor.throwIfCancelled();
+
+            int open = maze.openSides(current);
+            int g = gScore[current] + 1;
+            for (int k = 0, end = kernel.count(open); k < end; k++) {
+                relax(current + kernel.offset(open, k), current, g);
+            }
+        }
+        return false;
+    }
+
+    private void relax(int neighbor, int current, int g) {
+        if (closedIn[neighbor] == query) return;
+        if (seenIn[neighbor] == query && g >= gScore[neighbor]) return;
+        seenIn[neighbor] = query;
+        gScore[neighbor] = g;
+        cameFrom[neighbor] = current;
+        openSet.pushOrDecrease(neighbor, key(g, g + heuristic(neighbor)));
+    }
+
+    private static long key(int g, int f) {
+        return ((long) f << 32) | (Integer.MAX_VALUE - g);
+    }
+
+    // Landmark bound against the target distances copied at the start of the query
+    private int heuristic(int id) {
+        int bound = 0;
+        for (int i = 0; i < targetDist.length; i++) {
+            int da = table.distance(i, id), db = targetDist[i];
+            if (da < 0 || db < 0) continue;
+            int d = da > db ? da - db : db - da;
+            if (d > bound) bound = d;
+        }
+        return bound;
+    }
+}
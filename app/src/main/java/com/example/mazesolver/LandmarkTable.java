@@ -0,0 +1,188 @@
+package com.example.mazesolver;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Exact step distances from a handful of landmark cells to every cell, for ALT
+// lower bounds: by the triangle inequality |d(L, u) - d(L, v)| <= d(u, v) for any
+// landmark L. The table is cell-major (the distances of one cell to all landmarks
+// sit next to each other), so a bound reads two short runs of the array.
+// Cells a landmark cannot reach hold -1 and are skipped for that landmark.
+public class LandmarkTable {
+
+    // How landmarks are placed. FARTHEST spreads them by farthest-point selection,
+    // starting from the cell farthest from the start; PERIMETER spaces them evenly
+    // around the border, where they sit "behind" most start/goal pairs; RANDOM is
+    // the baseline the other two should beat.
+    public enum Strategy {
+        FARTHEST, PERIMETER, RANDOM
+    }
+
+    // Building holds a BFS distance array, its queue and the farthest-point minima
+    // next to the table: three ints per cell on top of one int per cell and landmark
+    private static final int BUILD_BYTES_PER_CELL = 12;
+    private static final int BYTES_PER_ENTRY = 4;
+
+    private final Maze maze;
+    private final int modCount;
+    private final int[] landmarks;
+    private final int[] dist;
+
+    private LandmarkTable(Maze maze, int modCount, int[] landmarks, int[] dist) {
+        this.maze = maze;
+        this.modCount = modCount;
+        this.landmarks = landmarks;
+        this.dist = dist;
+    }
+
+    public static LandmarkTable build(Maze maze, int count) {
+        return build(maze, count, Strategy.FARTHEST);
+    }
+
+    public static LandmarkTable build(Maze maze, int count, Strategy strategy) {
+        int modCount = maze.modCount();
+        int n = maze.size();
+        count = Math.max(1, Math.min(count, n));
+        long entries = (long) n * count;
+        if (entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Landmark table too large: " + count + " landmarks x " + n + " cells");
+        }
+        int[] landmarks = new int[count];
+        int[] dist = new int[(int) entries];
+        int[] scratch = new int[n];
+        int[] queue = new int[n];
+        // Smallest distance from each cell to any landmark chosen so far
+        int[] nearest = null;
+        Random random = null;
+
+        int next = -1;
+        if (strategy == Strategy.FARTHEST) {
+            nearest = new int[n];
+            Arrays.fill(nearest, Integer.MAX_VALUE);
+            bfs(maze, maze.start(), scratch, queue);
+            next = farthest(scratch, n);
+        } else if (strategy == Strategy.RANDOM) {
+            // Fixed seed so runs over the same maze can be compared
+            random = new Random(n);
+        }
+        for (int l = 0; l < count; l++) {
+            if (strategy == Strategy.PERIMETER) {
+                next = perimeterCell(maze, (int) ((long) l * perimeter(maze) / count));
+            } else if (strategy == Strategy.RANDOM) {
+                next = random.nextInt(n);
+            }
+            landmarks[l] = next;
+            bfs(maze, next, scratch, queue);
+            int best = -1;
+            for (int id = 0; id < n; id++) {
+                int d = scratch[id];
+                dist[id * count + l] = d;
+                if (nearest == null) continue;
+                if (d >= 0 && d < nearest[id]) nearest[id] = d;
+                if (best < 0 || nearest[id] > nearest[best]) best = id;
+            }
+            next = best;
+        }
+        return new LandmarkTable(maze, modCount, landmarks, dist);
+    }
+
+    // How many of the wanted landmarks the heap can take for this maze right now,
+    // keeping the build to half of the free heap; 0 when not even one fits
+    public static int affordableCount(Maze maze, int wanted) {
+        Runtime runtime = Runtime.getRuntime();
+        long free = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        return affordableCount(maze.size(), wanted, free / 2);
+    }
+
+    static int affordableCount(int cells, int wanted, long budgetBytes) {
+        long perLandmark = (long) cells * BYTES_PER_ENTRY;
+        long count = (budgetBytes - (long) cells * BUILD_BYTES_PER_CELL) / perLandmark;
+        count = Math.min(count, (Integer.MAX_VALUE - 8) / cells);
+        return (int) Math.max(0, Math.min(wanted, count));
+    }
+
+    public Maze maze() {
+        return maze;
+    }
+
+    // False once the maze has been edited since the table was built; stale
+    // distances can overestimate, which breaks A*'s optimality
+    public boolean isCurrent(Maze maze) {
+        return this.maze == maze && maze.modCount() == modCount;
+    }
+
+    public int count() {
+        return landmarks.length;
+    }
+
+    public int landmark(int i) {
+        return landmarks[i];
+    }
+
+    // Steps from landmark i to the cell, or -1 when it cannot be reached
+    public int distance(int i, int cell) {
+        return dist[cell * landmarks.length + i];
+    }
+
+    // Largest landmark lower bound on the steps between two cells
+    public int lowerBound(int from, int to) {
+        int count = landmarks.length;
+        int a = from * count, b = to * count;
+        int bound = 0;
+        for (int i = 0; i < count; i++) {
+            int da = dist[a + i], db = dist[b + i];
+            if (da < 0 || db < 0) continue;
+            int d = da > db ? da - db : db - da;
+            if (d > bound) bound = d;
+        }
+        return bound;
+    }
+
+    // Unreached cells get -1
+    static void bfs(Maze maze, int source, int[] dist, int[] queue) {
+        NeighborKernel kernel = NeighborKernel.of(maze);
+        Arrays.fill(dist, 0, maze.size(), -1);
+        dist[source] = 0;
+        queue[0] = source;
+        int head = 0, tail = 1;
+        while (head < tail) {
+            int current = queue[head++];
+            if ((head & 4095) == 0) SolverExecutor.throwIfCancelled();
+            int open = maze.openSides(current);
+            int d = dist[current] + 1;
+            for (int k = 0, end = kernel.count(open); k < end; k++) {
+                int next = current + kernel.offset(open, k);
+                if (dist[next] < 0) {
+                    dist[next] = d;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    private static int perimeter(Maze maze) {
+        int cols = maze.cols(), rows = maze.rows();
+        return cols == 1 || rows == 1 ? cols * rows : 2 * (cols + rows) - 4;
+    }
+
+    // The i-th border cell going clockwise from the top-left corner
+    private static int perimeterCell(Maze maze, int i) {
+        int cols = maze.cols(), rows = maze.rows();
+        if (cols == 1 || rows == 1) return i;
+        if (i < cols) return maze.id(i, 0);
+        i -= cols - 1;
+        if (i < rows) return maze.id(cols - 1, i);
+        i -= rows - 1;
+        if (i < cols) return maze.id(cols - 1 - i, rows - 1);
+        i -= cols - 1;
+        return maze.id(0, rows - 1 - i);
+    }
+
+    private static int farthest(int[] dist, int n) {
+        int best = 0;
+        for (int id = 1; id < n; id++) {
+            if (dist[id] > dist[best]) best = id;
+        }
+        return best;
+    }
+}
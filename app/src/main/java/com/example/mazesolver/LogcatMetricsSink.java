@@ -0,0 +1,14 @@
+package com.example.mazesolver;
+
+import android.util.Log;
+
+// One log line per solve, at INFO
+public class LogcatMetricsSink implements MetricsSink {
+
+    private static final String TAG = "MazeSolverMetrics";
+
+    @Override
+    public void onSolve(SolveMetrics metrics) {
+        Log.i(TAG, metrics.toString());
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.mazesolver;
+
+import java.util.*;
+
+// Lifelong Planning A* (LPA*) from maze.start() to maze.goal() that survives edits.
+// g[] holds the cost each cell was last expanded with and rhs[] the cost its
+// neighbours currently offer; cells where the two disagree sit in the open queue.
+// A wall or cost change only touches rhs of the cells next to it, and the next
+// repair re-expands just the cells whose costs actually move, so an edit far from
+// the path costs a handful of expansions instead of a new search.
+//
+// The planner owns edits to its maze: walls and costs have to change through
+// setWall/setCost, or the kept state no longer matches the maze.
+public class LpaStarSolver {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final MazeGrid maze;
+    private final NeighborKernel kernel;
+    private final int start, goal;
+    private final int goalX, goalY;
+    private final int[] g;
+    private final int[] rhs;
+    private final IndexedMinHeap open = new IndexedMinHeap();
+    // Step bounds are scaled by the cheapest cost, as in AStarSolver
+    private int minCost;
+
+    // Cells expanded by the last repair; a cell can appear twice
+    private int[] expanded = new int[64];
+    private int expandedCount;
+    private SolveEventBatch events;
+
+    public LpaStarSolver(MazeGrid maze) {
+        this.maze = maze;
+        this.kernel = NeighborKernel.of(maze);
+        this.start = maze.start();
+        this.goal = maze.goal();
+        this.goalX = maze.x(goal);
+        this.goalY = maze.y(goal);
+        this.g = new int[maze.size()];
+        this.rhs = new int[maze.size()];
+        initialize();
+    }
+
+    public MazeGrid maze() {
+        return maze;
+    }
+
+    public SolveResult solve() {
+        return solve(null);
+    }
+
+    // Bring the path up to date with every edit so far. The first call is a full A*;
+    // after that only the cells the edits affected are expanded, and only those are
+    // reported as visited and streamed to the listener.
+    public SolveResult solve(SolveListener listener) {
+        events = listener == null ? null : new SolveEventBatch(listener);
+        List<MazeView.Cell> path;
+        try {
+            computeShortestPath();
+            path = path();
+            if (events != null) {
+                events.addPath(maze, path);
+                events.flush();
+            }
+        } finally {
+            events = null;
+        }
+
+        int words = (maze.size() + 63) >>> 6;
+        long[] bits = new long[words];
+        int count = 0;
+        for (int i = 0; i < expandedCount; i++) {
+            int id = expanded[i];
+            if ((bits[id >>> 6] & (1L << id)) != 0) continue;
+            bits[id >>> 6] |= 1L << id;
+            count++;
+        }
+        return new SolveResult(path, new VisitedCellSet(maze, bits, count));
+    }
+
+    // Open (present = false) or close a wall and repair the path; returns its new cost,
+    // -1 when the goal is cut off. Border walls never change.
+    public int setWall(int id, int side, boolean present) {
+        int other = maze.neighbor(id, side);
+        if (other < 0 || maze.hasWall(id, side) == present) return pathCost();
+        maze.setWall(id, side, present);
+        // Only these two cells gained or lost a neighbour
+        updateRhs(id);
+        updateRhs(other);
+        computeShortestPath();
+        return pathCost();
+    }
+
+    // Change the cost of entering a cell and repair the path; returns its new cost
+    public int setCost(int id, int cost) {
+        maze.setCost(id, cost);
+        if (cost < minCost) {
+            // The heuristic would overestimate now, so the kept keys are no good
+            initialize();
+        } else {
+            updateRhs(id);
+        }
+        computeShortestPath();
+        return pathCost();
+    }
+
+    // Cost of the current path, or -1 when the goal cannot be reached
+    public int pathCost() {
+        return g[goal] < INF && g[goal] == rhs[goal] ? g[goal] : -1;
+    }
+
+    // Cells expanded by the last repair, counting re-expansions
+    public int expandedCount() {
+        return expandedCount;
+    }
+
+    // Start-goal path as of the last repair: from the goal, keep stepping to the
+    // neighbour with the smallest g
+    public List<MazeView.Cell> path() {
+        List<MazeView.Cell> path = new ArrayList<>();
+        if (pathCost() >= 0) {
+            for (int current = goal; current != start; ) {
+                path.add(maze.cell(current));
+                int sides = maze.openSides(current);
+                int previous = -1;
+                for (int k = 0, end = kernel.count(sides); k < end; k++) {
+                    int next = current + kernel.offset(sides, k);
+                    if (previous < 0 || g[next] < g[previous]) previous = next;
+                }
+                current = previous;
+            }
+        }
+        path.add(maze.cell(start));
+        Collections.reverse(path);
+        return path;
+    }
+
+    private void initialize() {
+        minCost = maze.minCost();
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        open.reset(maze.size());
+        rhs[start] = 0;
+        open.push(start, key(start));
+    }
+
+    private void computeShortestPath() {
+        expandedCount = 0;
+        while (!open.isEmpty() && (open.peekKey() < key(goal) || rhs[goal] != g[goal])) {
+            // Checked before the pop, so a cancelled repair leaves the queue intact
+            if ((expandedCount & 4095) == 4095) SolverExecutor.throwIfCancelled();
+            int u = open.pop();
+            if (expandedCount == expanded.length) expanded = Arrays.copyOf(expanded, expandedCount * 2);
+            expanded[expandedCount++] = u;
+            if (events != null) events.add(SolveListener.EXPANDED, u);
+
+            int sides = maze.openSides(u);
+            if (g[u] > rhs[u]) {
+                // Overconsistent: u settles at its better cost and offers it onwards
+                g[u] = rhs[u];
+                for (int k = 0, end = kernel.count(sides); k < end; k++) {
+                    int next = u + kernel.offset(sides, k);
+                    if (next == start) continue;
+                    int offer = g[u] + maze.cost(next);
+                    if (offer < rhs[next]) {
+                        rhs[next] = offer;
+                        settle(next);
+                    }
+                }
+            } else {
+                // Underconsistent: u got dearer, so it and everything that went through it is re-costed
+                g[u] = INF;
+                settle(u);
+                for (int k = 0, end = kernel.count(sides); k < end; k++) {
+                    updateRhs(u + kernel.offset(sides, k));
+                }
+            }
+        }
+    }
+
+    // Recompute what the neighbours offer the cell, and queue it if that disagrees with g
+    private void updateRhs(int id) {
+        if (id != start) {
+            int best = INF;
+            int sides = maze.openSides(id);
+            for (int k = 0, end = kernel.count(sides); k < end; k++) {
+                int d = g[id + kernel.offset(sides, k)];
+                if (d < best) best = d;
+            }
+            rhs[id] = best < INF ? best + maze.cost(id) : INF;
+        }
+        settle(id);
+    }
+
+    private void settle(int id) {
+        if (g[id] != rhs[id]) {
+            if (events != null && !open.contains(id)) events.add(SolveListener.FRONTIER, id);
+            open.pushOrUpdate(id, key(id));
+        } else if (open.contains(id)) {
+            open.remove(id);
+        }
+    }
+
+    // Order by min(g, rhs) + h, then by min(g, rhs)
+    private long key(int id) {
+        int m = Math.min(g[id], rhs[id]);
+        int h = (Math.abs(maze.x(id) - goalX) + Math.abs(maze.y(id) - goalY)) * minCost;
+        return ((long) (m + h) << 32) | m;
+    }
+}
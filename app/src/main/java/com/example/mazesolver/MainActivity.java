@@ -2,59 +2,130 @@ package com.example.mazesolver;
 
 import android.app.AlertDialog;
 import android.content.DialogInterface;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.widget.*;
 import androidx.appcompat.app.AppCompatActivity;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 public class MainActivity extends AppCompatActivity {
 
+    private static final int MAX_ALTERNATIVE_PATHS = 20;
+    private static final int[] MAZE_SIZES = {13, 51, 201, 1001, 2001};
+    private static final int SOLVE_EVENT_CAPACITY = 4096;
+    // Small mazes step a few events per frame; larger ones scale up so a whole solve
+    // plays out in a few seconds rather than throttling the solver for minutes
+    private static final int MIN_SOLVE_EVENTS_PER_FRAME = 4;
+    private static final int SOLVE_ANIMATION_FRAMES = 120;
+
     private MazeView mazeView;
     private List<List<MazeView.Cell>> allPaths = new ArrayList<>();
+    private Iterator<List<MazeView.Cell>> pathIterator;
     private int currentPathIndex = 0;
+    private boolean pathsExhausted;
+    private boolean nextPathPending;
+
+    private SolverExecutor solverExecutor;
+    private String animatingSolver;
+    // Debuggable builds log every solve; the overlay sink is toggled by long-pressing
+    // Solve. With neither installed, solves run unmeasured.
+    private MetricsSink logcatSink;
+    private MetricsSink overlaySink;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        solverExecutor = new SolverExecutor(new Handler(Looper.getMainLooper())::post);
+        Metrics.setMeter(new AndroidResourceMeter());
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            logcatSink = new LogcatMetricsSink();
+            Metrics.addSink(logcatSink);
+        }
+
         mazeView = findViewById(R.id.mazeView);
         Button solveButton = findViewById(R.id.solveButton);
         Button resetButton = findViewById(R.id.resetButton);
+        Button terrainButton = findViewById(R.id.terrainButton);
+        Button sizeButton = findViewById(R.id.sizeButton);
         Button saveButton = findViewById(R.id.saveButton);
         Button loadButton = findViewById(R.id.loadButton);
         Button deleteButton = findViewById(R.id.deleteButton);
         Button nextPathButton = findViewById(R.id.nextPathButton);
         Spinner algorithmSelector = findViewById(R.id.algorithmSelector);
 
-        ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, new String[]{"Dijkstra", "A*"});
+        ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, SolverRegistry.names());
         adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         algorithmSelector.setAdapter(adapter);
 
+        // A long press edits a wall and Size or Reset bring a new maze; solves and paths
+        // of the old layout are dropped first
+        mazeView.setOnMazeEdited(() -> {
+            cancelSolves();
+            clearPaths();
+        });
+
+        // Solving runs in the background and streams its progress to the view, which
+        // steps through it frame by frame. Pressing Solve again skips to the result;
+        // with another algorithm selected it replaces the running solve instead.
         solveButton.setOnClickListener(v -> {
-            String algo = algorithmSelector.getSelectedItem().toString();
-            List<MazeView.Cell> path;
-            Set<MazeView.Cell> visited;
-
-            if (algo.equals("A*")) {
-                AStarSolver solver = new AStarSolver(mazeView.getGrid(), mazeView.getCols(), mazeView.getRows());
-                AStarSolver.Result result = solver.solve();
-                path = result.path;
-                visited = result.visited;
-            } else {
-                DijkstraSolver solver = new DijkstraSolver(mazeView.getGrid(), mazeView.getCols(), mazeView.getRows());
-                DijkstraSolver.Result result = solver.solve();
-                path = result.path;
-                visited = result.visited;
+            MazeSolver solver = SolverRegistry.get(algorithmSelector.getSelectedItem().toString());
+            if (mazeView.isAnimatingSolve() && solver.name().equals(animatingSolver)) {
+                mazeView.skipSolveAnimation();
+                return;
             }
+            Maze maze = mazeView.getMaze();
+            cancelSolves();
+
+            SolveEventQueue events = new SolveEventQueue(SOLVE_EVENT_CAPACITY);
+            animatingSolver = solver.name();
+            mazeView.animateSolve(events, Math.max(MIN_SOLVE_EVENTS_PER_FRAME, maze.size() / SOLVE_ANIMATION_FRAMES));
+            solveInBackground(events, () -> Metrics.measure(solver.name(), () -> solver.solve(maze, events)),
+                    result -> mazeView.setSolveResult(result.path, result.visited));
+        });
 
-            mazeView.animateSolvedPath(path, visited);
+        solveButton.setOnLongClickListener(v -> {
+            if (overlaySink == null) {
+                overlaySink = new OverlayMetricsSink(mazeView);
+                Metrics.addSink(overlaySink);
+            } else {
+                Metrics.removeSink(overlaySink);
+                overlaySink = null;
+                mazeView.showMetrics(null);
+            }
+            return true;
         });
 
         resetButton.setOnClickListener(v -> {
+            cancelSolves();
             mazeView.resetMaze();
-            allPaths.clear();
-            currentPathIndex = 0;
+            clearPaths();
+        });
+
+        // Terrain only changes costs, so the walls and the view stay as they are
+        terrainButton.setOnClickListener(v -> {
+            cancelSolves();
+            boolean enable = !mazeView.hasTerrain();
+            mazeView.setTerrain(enable);
+            clearPaths();
+            Toast.makeText(this, enable ? "Terrain on" : "Terrain off", Toast.LENGTH_SHORT).show();
+        });
+
+        // Large mazes are generated in the background and browsed by pinching and
+        // dragging; solves and paths of the old maze are dropped when it arrives
+        sizeButton.setOnClickListener(v -> {
+            String[] labels = new String[MAZE_SIZES.length];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = MAZE_SIZES[i] + " x " + MAZE_SIZES[i];
+            }
+            new AlertDialog.Builder(this)
+                    .setTitle("Maze Size")
+                    .setItems(labels, (dialog, which) -> mazeView.setMazeSize(MAZE_SIZES[which], MAZE_SIZES[which]))
+                    .show();
         });
 
         saveButton.setOnClickListener(v -> {
@@ -82,7 +153,11 @@ public class MainActivity extends AppCompatActivity {
             String[] mazeNames = saved.toArray(new String[0]);
             new AlertDialog.Builder(this)
                     .setTitle("Load Maze")
-                    .setItems(mazeNames, (dialog, which) -> mazeView.loadMaze(this, mazeNames[which]))
+                    .setItems(mazeNames, (dialog, which) -> {
+                        cancelSolves();
+                        mazeView.loadMaze(this, mazeNames[which]);
+                        clearPaths();
+                    })
                     .show();
         });
 
@@ -103,18 +178,85 @@ public class MainActivity extends AppCompatActivity {
         });
 
         nextPathButton.setOnClickListener(v -> {
-            if (allPaths.isEmpty()) {
-                MultiplePathSolver solver = new MultiplePathSolver(mazeView.getGrid(), mazeView.getCols(), mazeView.getRows());
-                allPaths = solver.findAllPaths();
-                currentPathIndex = 0;
+            // The search already running will show the next path when it finishes
+            if (nextPathPending) return;
+            if (pathIterator == null) {
+                MultiplePathSolver solver = new MultiplePathSolver(mazeView.getMaze());
+                clearPaths();
+                pathIterator = solver.shortestPaths(MAX_ALTERNATIVE_PATHS, Integer.MAX_VALUE);
             }
-            if (!allPaths.isEmpty()) {
-                mazeView.setSolvedPath(allPaths.get(currentPathIndex));
-                Toast.makeText(this, "Path " + (currentPathIndex + 1) + "/" + allPaths.size(), Toast.LENGTH_SHORT).show();
-                currentPathIndex = (currentPathIndex + 1) % allPaths.size();
-            } else {
-                Toast.makeText(this, "No paths found!", Toast.LENGTH_SHORT).show();
+            if (currentPathIndex < allPaths.size() || pathsExhausted) {
+                showNextPath();
+                return;
             }
+
+            // Only compute the next alternative when the user asks for it
+            Iterator<List<MazeView.Cell>> paths = pathIterator;
+            nextPathPending = true;
+            solverExecutor.submit(() -> paths.hasNext() ? paths.next() : null, new SolverExecutor.Callback<List<MazeView.Cell>>() {
+                @Override
+                public void onResult(List<MazeView.Cell> path) {
+                    nextPathPending = false;
+                    if (path != null) allPaths.add(path);
+                    // next() has already searched for the following path, so this is cheap
+                    pathsExhausted = path == null || !paths.hasNext();
+                    showNextPath();
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    nextPathPending = false;
+                    pathIterator = null;
+                    error.printStackTrace();
+                }
+            });
         });
     }
+
+    @Override
+    protected void onDestroy() {
+        solverExecutor.shutdown();
+        if (logcatSink != null) Metrics.removeSink(logcatSink);
+        if (overlaySink != null) Metrics.removeSink(overlaySink);
+        super.onDestroy();
+    }
+
+    // Run a streaming solve on the executor; the queue is closed however the solve ends
+    private <R> void solveInBackground(SolveEventQueue events, Callable<R> solve, SolverExecutor.Callback<R> done) {
+        solverExecutor.submit(() -> {
+            try {
+                return solve.call();
+            } finally {
+                events.close();
+            }
+        }, done);
+    }
+
+    private void showNextPath() {
+        if (!allPaths.isEmpty()) {
+            if (currentPathIndex >= allPaths.size()) currentPathIndex = 0;
+            mazeView.setSolvedPath(allPaths.get(currentPathIndex));
+            String total = pathsExhausted ? "/" + allPaths.size() : "";
+            Toast.makeText(this, "Path " + (currentPathIndex + 1) + total, Toast.LENGTH_SHORT).show();
+            currentPathIndex++;
+        } else {
+            Toast.makeText(this, "No paths found!", Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    // A next() that was interrupted halfway leaves its iterator unusable, so drop it
+    private void cancelSolves() {
+        if (nextPathPending) {
+            nextPathPending = false;
+            clearPaths();
+        }
+        solverExecutor.cancel();
+    }
+
+    private void clearPaths() {
+        allPaths.clear();
+        pathIterator = null;
+        pathsExhausted = false;
+        currentPathIndex = 0;
+    }
 }
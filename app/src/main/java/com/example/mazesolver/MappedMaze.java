@@ -0,0 +1,234 @@
+package com.example.mazesolver;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+// Read-only maze backed by a memory-mapped, uncompressed MazeFile. The wall bits
+// are read straight from the page cache, so even a 50k x 50k maze (625 MB of
+// walls) costs almost no heap. Cell addressing inside uses longs; the int-id Maze
+// methods work for mazes up to Integer.MAX_VALUE cells, and readRegion pages
+// through anything the file format can hold. Terrain costs, when the file has
+// them, are mapped the same way from the section after the walls.
+public class MappedMaze implements Maze, Closeable {
+
+    // Each mapping is at most 1 GB, a multiple of 8 so no wall word straddles two
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_BYTES = 1L << SEGMENT_SHIFT;
+
+    private final RandomAccessFile file;
+    private final ByteBuffer[] segments;
+    // One byte per cell, or null for a unit-cost maze
+    private final ByteBuffer[] costSegments;
+    private final int cols, rows;
+    private final int start, goal;
+    private final long seed;
+    private final int crc, costCrc;
+    // Cost range, found by one pass over the costs the first time it is asked for
+    private int minCost, maxCost;
+
+    private MappedMaze(RandomAccessFile file, ByteBuffer[] segments, ByteBuffer[] costSegments, MazeFile.Header header) {
+        this.file = file;
+        this.segments = segments;
+        this.costSegments = costSegments;
+        this.cols = header.cols;
+        this.rows = header.rows;
+        this.start = header.start;
+        this.goal = header.goal;
+        this.seed = header.seed;
+        this.crc = header.crc;
+        this.costCrc = header.costCrc;
+    }
+
+    public static MappedMaze open(File path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            ByteBuffer headerBytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, MazeFile.HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            MazeFile.Header header = MazeFile.Header.parse(headerBytes);
+            if ((header.flags & MazeFile.FLAG_DEFLATE) != 0) {
+                throw new IOException("Compressed maze files cannot be mapped");
+            }
+            long cells = (long) header.cols * header.rows;
+            long payload = (cells + 31) / 32 * 8;
+            if (header.payloadLength != payload || channel.size() < MazeFile.HEADER_SIZE + payload) {
+                throw new IOException("Truncated maze payload");
+            }
+            ByteBuffer[] costSegments = null;
+            if ((header.flags & MazeFile.FLAG_COSTS) != 0) {
+                if (channel.size() < MazeFile.HEADER_SIZE + payload + cells) throw new IOException("Truncated maze costs");
+                costSegments = map(channel, MazeFile.HEADER_SIZE + payload, cells);
+            }
+            return new MappedMaze(file, map(channel, MazeFile.HEADER_SIZE, payload), costSegments, header);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    private static ByteBuffer[] map(FileChannel channel, long position, long length) throws IOException {
+        ByteBuffer[] segments = new ByteBuffer[(int) ((length + SEGMENT_BYTES - 1) >>> SEGMENT_SHIFT)];
+        for (int i = 0; i < segments.length; i++) {
+            long offset = (long) i << SEGMENT_SHIFT;
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY,
+                    position + offset, Math.min(SEGMENT_BYTES, length - offset));
+            segments[i] = segment.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return segments;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    public long cellCount() {
+        return (long) cols * rows;
+    }
+
+    @Override
+    public int size() {
+        long count = cellCount();
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Maze has " + count + " cells, too many for int ids; use readRegion");
+        }
+        return (int) count;
+    }
+
+    @Override
+    public int start() {
+        return start;
+    }
+
+    @Override
+    public int goal() {
+        return goal;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    @Override
+    public int cost(int id) {
+        if (costSegments == null) return 1;
+        return costSegments[id >>> SEGMENT_SHIFT].get(id & (int) (SEGMENT_BYTES - 1)) & 0xFF;
+    }
+
+    @Override
+    public int minCost() {
+        if (costSegments == null) return 1;
+        scanCosts();
+        return minCost;
+    }
+
+    @Override
+    public int maxCost() {
+        if (costSegments == null) return 1;
+        scanCosts();
+        return maxCost;
+    }
+
+    private synchronized void scanCosts() {
+        if (minCost > 0) return;
+        int min = MazeGrid.MAX_COST, max = 1;
+        for (ByteBuffer segment : costSegments) {
+            for (int i = 0, n = segment.limit(); i < n; i++) {
+                int cost = segment.get(i) & 0xFF;
+                if (cost < min) min = cost;
+                if (cost > max) max = cost;
+            }
+        }
+        maxCost = max;
+        minCost = Math.max(1, min);
+    }
+
+    @Override
+    public int openSides(int id) {
+        return openSides(id % cols, id / cols);
+    }
+
+    public int openSides(int x, int y) {
+        long cell = (long) y * cols + x;
+        int mask = 0;
+        if (y > 0 && !bit(((cell - cols) << 1) + 1)) mask |= MazeGrid.TOP;
+        if (x < cols - 1 && !bit(cell << 1)) mask |= MazeGrid.RIGHT;
+        if (y < rows - 1 && !bit((cell << 1) + 1)) mask |= MazeGrid.BOTTOM;
+        if (x > 0 && !bit((cell - 1) << 1)) mask |= MazeGrid.LEFT;
+        return mask;
+    }
+
+    // Region reads go row by row so consecutive cells hit the same mapped pages
+    @Override
+    public void readRegion(int x0, int y0, int w, int h, byte[] out) {
+        int i = 0;
+        for (int y = y0; y < y0 + h; y++) {
+            for (int x = x0; x < x0 + w; x++) {
+                out[i++] = (byte) openSides(x, y);
+            }
+        }
+    }
+
+    // Copy the walls onto the heap; only for mazes that fit in a MazeGrid
+    public MazeGrid load() {
+        MazeGrid grid = new MazeGrid(cols, rows);
+        long[] words = grid.words();
+        for (int i = 0; i < words.length; i++) {
+            words[i] = word(i);
+        }
+        if (costSegments != null) {
+            byte[] costs = new byte[grid.size()];
+            costSegments[0].duplicate().get(costs);
+            grid.setCosts(costs);
+        }
+        return grid;
+    }
+
+    // Recompute the payload and cost checksums; reads the whole file, so it is opt-in
+    public boolean verify() {
+        if (checksum(segments) != crc) return false;
+        return costSegments == null || checksum(costSegments) == costCrc;
+    }
+
+    private static int checksum(ByteBuffer[] segments) {
+        CRC32 check = new CRC32();
+        byte[] chunk = new byte[64 * 1024];
+        for (ByteBuffer segment : segments) {
+            ByteBuffer view = segment.duplicate();
+            view.clear();
+            while (view.hasRemaining()) {
+                int n = Math.min(chunk.length, view.remaining());
+                view.get(chunk, 0, n);
+                check.update(chunk, 0, n);
+            }
+        }
+        return (int) check.getValue();
+    }
+
+    private boolean bit(long index) {
+        return (word(index >>> 6) & (1L << index)) != 0;
+    }
+
+    private long word(long index) {
+        long offset = index << 3;
+        return segments[(int) (offset >>> SEGMENT_SHIFT)].getLong((int) (offset & (SEGMENT_BYTES - 1)));
+    }
+
+    // The mapping stays valid until the buffers are collected; this only releases the file
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
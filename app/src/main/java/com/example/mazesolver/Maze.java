@@ -0,0 +1,100 @@
+package com.example.mazesolver;
+
+// Read-only view of a maze for solvers and renderers. Cells are addressed by
+// id = y * cols + x; the side constants are MazeGrid.TOP/RIGHT/BOTTOM/LEFT.
+// Moving into a cell costs cost(id); unweighted solvers count steps instead.
+public interface Maze {
+
+    int cols();
+
+    int rows();
+
+    // Bitmask of the sides a walker can leave the cell through
+    int openSides(int id);
+
+    default int size() {
+        return cols() * rows();
+    }
+
+    default int id(int x, int y) {
+        return y * cols() + x;
+    }
+
+    default int x(int id) {
+        return id % cols();
+    }
+
+    default int y(int id) {
+        return id / cols();
+    }
+
+    default int start() {
+        return 0;
+    }
+
+    default int goal() {
+        return size() - 1;
+    }
+
+    // Cost of stepping into the cell, at least 1; plain mazes cost 1 everywhere
+    default int cost(int id) {
+        return 1;
+    }
+
+    // Smallest and largest cost of any cell; weighted solvers size their queues and
+    // scale their heuristics by these
+    default int minCost() {
+        return 1;
+    }
+
+    default int maxCost() {
+        return 1;
+    }
+
+    // Changes whenever a wall or cost does, so caches built from the maze can tell
+    // they are stale; mazes that are never edited can leave it at 0
+    default int modCount() {
+        return 0;
+    }
+
+    default boolean hasWall(int id, int side) {
+        return (openSides(id) & side) == 0;
+    }
+
+    // Id of the cell across the given side, or -1 when it is outside the maze
+    default int neighbor(int id, int side) {
+        int cols = cols();
+        switch (side) {
+            case MazeGrid.TOP:
+                return id >= cols ? id - cols : -1;
+            case MazeGrid.RIGHT:
+                return id % cols < cols - 1 ? id + 1 : -1;
+            case MazeGrid.BOTTOM:
+                return id < size() - cols ? id + cols : -1;
+            case MazeGrid.LEFT:
+                return id % cols > 0 ? id - 1 : -1;
+            default:
+                throw new IllegalArgumentException("Unknown side: " + side);
+        }
+    }
+
+    // Open-side masks of the w x h block of cells at (x0, y0), row by row into out
+    default void readRegion(int x0, int y0, int w, int h, byte[] out) {
+        int i = 0;
+        for (int y = y0; y < y0 + h; y++) {
+            for (int x = x0; x < x0 + w; x++) {
+                out[i++] = (byte) openSides(id(x, y));
+            }
+        }
+    }
+
+    default MazeView.Cell cell(int id) {
+        int open = openSides(id);
+        MazeView.Cell cell = new MazeView.Cell(x(id), y(id));
+        cell.topWall = (open & MazeGrid.TOP) == 0;
+        cell.rightWall = (open & MazeGrid.RIGHT) == 0;
+        cell.bottomWall = (open & MazeGrid.BOTTOM) == 0;
+        cell.leftWall = (open & MazeGrid.LEFT) == 0;
+        return cell;
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.mazesolver;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Binary .maze format. Everything is little-endian:
+//
+//   0  magic "MAZE"          24  seed (long)
+//   4  version (short)       32  payload length in bytes, as stored (long)
+//   6  flags (short)         40  CRC32 of the uncompressed payload (int)
+//   8  cols (int)            44  CRC32 of the cost bytes, or 0 (int)
+//  12  rows (int)            48  payload
+//  16  start cell id (int)
+//  20  goal cell id (int)
+//
+// The payload is MazeGrid's wall words as-is: two bits per cell, 32 cells per long.
+// It starts on an 8-byte boundary so an uncompressed file can be memory-mapped and
+// read in place. With FLAG_COSTS the payload is followed by one raw cost byte per
+// cell; readers that do not know the flag see a unit-cost maze. Files written by
+// the old ObjectOutputStream code (Cell[][]) are recognised by the Java
+// serialization magic and converted on load.
+public class MazeFile {
+
+    public static final int MAGIC = 0x455A414D; // "MAZE" read as a little-endian int
+    public static final short VERSION = 1;
+    public static final short FLAG_DEFLATE = 1;
+    public static final short FLAG_COSTS = 2;
+    public static final int HEADER_SIZE = 48;
+
+    private static final int CHUNK = 64 * 1024;
+
+    public final MazeGrid maze;
+    public final int start;
+    public final int goal;
+    public final long seed;
+
+    public MazeFile(MazeGrid maze, int start, int goal, long seed) {
+        this.maze = maze;
+        this.start = start;
+        this.goal = goal;
+        this.seed = seed;
+    }
+
+    public MazeFile(MazeGrid maze, long seed) {
+        this(maze, maze.start(), maze.goal(), seed);
+    }
+
+    public void write(WritableByteChannel channel, boolean compress) throws IOException {
+        long[] words = maze.words();
+
+        CRC32 crc = new CRC32();
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < words.length; ) {
+            i = fill(chunk, words, i);
+            crc.update(chunk.array(), 0, chunk.limit());
+        }
+
+        byte[] compressed = compress ? deflate(words) : null;
+        long payloadLength = compress ? compressed.length : (long) words.length * 8;
+        byte[] costs = maze.costs();
+        CRC32 costCrc = new CRC32();
+        if (costs != null) costCrc.update(costs);
+        short flags = (short) ((compress ? FLAG_DEFLATE : 0) | (costs != null ? FLAG_COSTS : 0));
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort(flags)
+                .putInt(maze.cols())
+                .putInt(maze.rows())
+                .putInt(start)
+                .putInt(goal)
+                .putLong(seed)
+                .putLong(payloadLength)
+                .putInt((int) crc.getValue())
+                .putInt(costs != null ? (int) costCrc.getValue() : 0);
+        header.flip();
+        writeFully(channel, header);
+
+        if (compress) {
+            writeFully(channel, ByteBuffer.wrap(compressed));
+        } else {
+            for (int i = 0; i < words.length; ) {
+                i = fill(chunk, words, i);
+                writeFully(channel, chunk);
+            }
+        }
+        if (costs != null) writeFully(channel, ByteBuffer.wrap(costs));
+    }
+
+    public static MazeFile read(ReadableByteChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int got = readUpTo(channel, header);
+
+        // Old files are a serialized Cell[][], which starts with 0xACED
+        if (got >= 2 && (header.get(0) & 0xFF) == 0xAC && (header.get(1) & 0xFF) == 0xED) {
+            return readLegacy(new SequenceInputStream(
+                    new ByteArrayInputStream(header.array(), 0, got), Channels.newInputStream(channel)));
+        }
+        if (got < HEADER_SIZE) throw new EOFException("Truncated maze header");
+
+        Header h = Header.parse(header);
+        if ((long) h.cols * h.rows > Integer.MAX_VALUE / 2) {
+            throw new IOException("Maze " + h.cols + "x" + h.rows + " is too large to load; open it with MappedMaze");
+        }
+        MazeGrid maze = new MazeGrid(h.cols, h.rows);
+        long[] words = maze.words();
+
+        CRC32 crc = new CRC32();
+        if ((h.flags & FLAG_DEFLATE) != 0) {
+            if (h.payloadLength > Integer.MAX_VALUE) throw new IOException("Compressed payload too large");
+            ByteBuffer compressed = ByteBuffer.allocate((int) h.payloadLength);
+            if (readUpTo(channel, compressed) < h.payloadLength) throw new EOFException("Truncated maze payload");
+            inflate(compressed.array(), words, crc);
+        } else {
+            if (h.payloadLength != (long) words.length * 8) throw new IOException("Payload length does not match maze size");
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < words.length; ) {
+                chunk.clear();
+                chunk.limit(Math.min(CHUNK, (words.length - i) * 8));
+                if (readUpTo(channel, chunk) < chunk.limit()) throw new EOFException("Truncated maze payload");
+                chunk.flip();
+                crc.update(chunk.array(), 0, chunk.limit());
+                while (chunk.hasRemaining()) {
+                    words[i++] = chunk.getLong();
+                }
+            }
+        }
+
+        if ((int) crc.getValue() != h.crc) throw new IOException("Maze file checksum mismatch");
+        if ((h.flags & FLAG_COSTS) != 0) readCosts(channel, maze, h.costCrc);
+        return new MazeFile(maze, h.start, h.goal, h.seed);
+    }
+
+    private static void readCosts(ReadableByteChannel channel, MazeGrid maze, int expectedCrc) throws IOException {
+        ByteBuffer costs = ByteBuffer.allocate(maze.size());
+        if (readUpTo(channel, costs) < costs.capacity()) throw new EOFException("Truncated maze costs");
+        byte[] bytes = costs.array();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        if ((int) crc.getValue() != expectedCrc) throw new IOException("Maze cost checksum mismatch");
+        for (byte cost : bytes) {
+            if (cost == 0) throw new IOException("Maze cost out of range");
+        }
+        maze.setCosts(bytes);
+    }
+
+    // Migration path for files saved with ObjectOutputStream before this format existed
+    private static MazeFile readLegacy(InputStream in) throws IOException {
+        try (ObjectInputStream objects = new ObjectInputStream(in)) {
+            MazeView.Cell[][] grid = (MazeView.Cell[][]) objects.readObject();
+            MazeGrid maze = MazeGrid.fromCells(grid, grid.length, grid[0].length);
+            return new MazeFile(maze, 0L);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unreadable legacy maze file", e);
+        }
+    }
+
+    // Parsed fixed-size header; also used by MappedMaze
+    static final class Header {
+        final short flags;
+        final int cols, rows, start, goal;
+        final long seed, payloadLength;
+        final int crc, costCrc;
+
+        private Header(ByteBuffer b) {
+            flags = b.getShort(6);
+            cols = b.getInt(8);
+            rows = b.getInt(12);
+            start = b.getInt(16);
+            goal = b.getInt(20);
+            seed = b.getLong(24);
+            payloadLength = b.getLong(32);
+            crc = b.getInt(40);
+            costCrc = b.getInt(44);
+        }
+
+        static Header parse(ByteBuffer b) throws IOException {
+            if (b.getInt(0) != MAGIC) throw new IOException("Not a maze file");
+            short version = b.getShort(4);
+            if (version < 1 || version > VERSION) throw new IOException("Unsupported maze file version " + version);
+            Header h = new Header(b);
+            if (h.cols <= 0 || h.rows <= 0) throw new IOException("Bad maze size " + h.cols + "x" + h.rows);
+            long cells = (long) h.cols * h.rows;
+            if (h.start < 0 || h.start >= cells || h.goal < 0 || h.goal >= cells) {
+                throw new IOException("Start " + h.start + " or goal " + h.goal + " outside the " + cells + " cells");
+            }
+            return h;
+        }
+    }
+
+    // Put longs from words[from...] into the buffer until it is full; returns the next index
+    private static int fill(ByteBuffer chunk, long[] words, int from) {
+        chunk.clear();
+        int i = from;
+        while (i < words.length && chunk.remaining() >= 8) {
+            chunk.putLong(words[i++]);
+        }
+        chunk.flip();
+        return i;
+    }
+
+    private static byte[] deflate(long[] words) {
+        Deflater deflater = new Deflater();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] buffer = new byte[CHUNK];
+        try {
+            for (int i = 0; i < words.length; ) {
+                i = fill(chunk, words, i);
+                deflater.setInput(chunk.array(), 0, chunk.limit());
+                while (!deflater.needsInput()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static void inflate(byte[] compressed, long[] words, CRC32 crc) throws IOException {
+        Inflater inflater = new Inflater();
+        inflater.setInput(compressed);
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            for (int i = 0; i < words.length; ) {
+                chunk.clear();
+                int want = Math.min(CHUNK, (words.length - i) * 8);
+                int have = 0;
+                while (have < want) {
+                    int n = inflater.inflate(chunk.array(), have, want - have);
+                    if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                        throw new EOFException("Truncated maze payload");
+                    }
+                    have += n;
+                }
+                crc.update(chunk.array(), 0, want);
+                chunk.limit(want);
+                while (chunk.hasRemaining()) {
+                    words[i++] = chunk.getLong();
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt maze payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Read until the buffer is full or the channel ends; returns the bytes read
+    private static int readUpTo(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) break;
+        }
+        return buffer.position() - start;
+    }
+}
@@ -1,4 +1,3 @@
-
 package com.example.mazesolver;
 
 import java.util.*;
@@ -6,44 +5,121 @@ import java.util.*;
 public class MazeGenerator {
     private final int rows, cols;
     private final int[][] maze;
-    private final boolean[][] visited;
 
     public MazeGenerator(int rows, int cols) {
+        this(rows, cols, new SplittableRandom());
+    }
+
+    public MazeGenerator(int rows, int cols, long seed) {
+        this(rows, cols, new SplittableRandom(seed));
+    }
+
+    private MazeGenerator(int rows, int cols, SplittableRandom rand) {
         this.rows = rows;
         this.cols = cols;
         this.maze = new int[rows][cols];
-        this.visited = new boolean[rows][cols];
-        generateMaze(0, 0);
+        generateMaze(rand);
     }
 
     public int[][] getMaze() {
         return maze;
     }
 
-    private void generateMaze(int r, int c) {
-        visited[r][c] = true;
+    // Convert the raster (cells on even coordinates, passages in between) to a wall grid
+    public MazeGrid toMazeGrid() {
+        MazeGrid grid = new MazeGrid((cols + 1) / 2, (rows + 1) / 2);
+        for (int r = 0; r < rows; r += 2) {
+            for (int c = 0; c < cols; c += 2) {
+                int id = grid.id(c / 2, r / 2);
+                if (c + 2 < cols && maze[r][c + 1] == 1) grid.carve(id, MazeGrid.RIGHT);
+                if (r + 2 < rows && maze[r + 1][c] == 1) grid.carve(id, MazeGrid.BOTTOM);
+            }
+        }
+        return grid;
+    }
 
-        int[][] directions = {
-                {0, -1},  // left
-                {-1, 0},  // up
-                {0, 1},   // right
-                {1, 0}    // down
-        };
+    // Carve on a wall grid of the raster's cells, then mark the opened passages
+    private void generateMaze(SplittableRandom rand) {
+        MazeGrid grid = new MazeGrid((cols + 1) / 2, (rows + 1) / 2);
+        carveBacktracking(grid, grid.start(), rand);
 
-        Collections.shuffle(Arrays.asList(directions), new Random());
+        for (int id = 0; id < grid.size(); id++) {
+            int r = grid.y(id) * 2;
+            int c = grid.x(id) * 2;
+            if (!grid.hasWall(id, MazeGrid.RIGHT)) maze[r][c + 1] = 1;
+            if (!grid.hasWall(id, MazeGrid.BOTTOM)) maze[r + 1][c] = 1;
+        }
+    }
 
-        for (int[] dir : directions) {
-            int newRow = r + dir[0] * 2;
-            int newCol = c + dir[1] * 2;
+    // Perfect maze with extra passages, the way MazeView builds its mazes
+    public static MazeGrid generate(int cols, int rows, int extraPassages, long seed) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        MazeGrid grid = new MazeGrid(cols, rows);
+        carveBacktracking(grid, grid.start(), rand);
+        addExtraPassages(grid, extraPassages, rand);
+        return grid;
+    }
 
-            if (isInBounds(newRow, newCol) && !visited[newRow][newCol]) {
-                maze[r + dir[0]][c + dir[1]] = 1;
-                generateMaze(newRow, newCol);
+    // Depth-first backtracking carve without recursion. The stack keeps only the
+    // 2-bit direction taken into each cell (16 per int); backtracking walks the
+    // opposite way, so a 10k x 10k grid needs about 25 MB of stack at worst.
+    public static void carveBacktracking(MazeGrid grid, int start, SplittableRandom rand) {
+        int cols = grid.cols();
+        int lastRow = grid.size() - cols;
+        int[] offsets = {-cols, 1, cols, -1};
+        long[] visited = new long[(grid.size() + 63) >>> 6];
+        int[] moves = new int[16];
+        int depth = 0;
+
+        int current = start;
+        visited[current >>> 6] |= 1L << current;
+
+        while (true) {
+            // Directions (indexes into MazeGrid.SIDES) that lead to cells not carved yet
+            int x = current % cols;
+            int candidates = 0;
+            if (current >= cols && !isSet(visited, current - cols)) candidates |= 1;
+            if (x < cols - 1 && !isSet(visited, current + 1)) candidates |= 2;
+            if (current < lastRow && !isSet(visited, current + cols)) candidates |= 4;
+            if (x > 0 && !isSet(visited, current - 1)) candidates |= 8;
+
+            if (candidates == 0) {
+                if (depth == 0) return;
+                depth--;
+                int dir = (moves[depth >>> 4] >>> ((depth & 15) << 1)) & 3;
+                current -= offsets[dir];
+                continue;
+            }
+
+            // Drop a random number of the lower candidates, then take the lowest left
+            int count = Integer.bitCount(candidates);
+            for (int pick = count == 1 ? 0 : rand.nextInt(count); pick > 0; pick--) {
+                candidates &= candidates - 1;
             }
+            int dir = Integer.numberOfTrailingZeros(candidates);
+
+            grid.carve(current, MazeGrid.SIDES[dir]);
+            current += offsets[dir];
+            visited[current >>> 6] |= 1L << current;
+
+            if ((depth >>> 4) == moves.length) moves = Arrays.copyOf(moves, moves.length << 1);
+            int shift = (depth & 15) << 1;
+            moves[depth >>> 4] = (moves[depth >>> 4] & ~(3 << shift)) | (dir << shift);
+            depth++;
         }
     }
 
-    private boolean isInBounds(int r, int c) {
-        return r >= 0 && r < rows && c >= 0 && c < cols;
+    private static boolean isSet(long[] bits, int id) {
+        return (bits[id >>> 6] & (1L << id)) != 0;
+    }
+
+    // Knock down random walls so the maze has loops and more than one route
+    public static void addExtraPassages(MazeGrid grid, int extraPassages, SplittableRandom rand) {
+        for (int i = 0; i < extraPassages; i++) {
+            int x = rand.nextInt(grid.cols());
+            int y = rand.nextInt(grid.rows());
+            int side = MazeGrid.SIDES[rand.nextInt(4)];
+            grid.carve(grid.id(x, y), side);
+        }
     }
 }
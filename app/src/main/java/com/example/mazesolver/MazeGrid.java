@@ -0,0 +1,278 @@
+package com.example.mazesolver;
+
+import java.util.Arrays;
+
+// Compact maze model: cells are addressed by id = y * cols + x and each cell owns
+// two wall bits (right and bottom). The left/top walls are read from the neighbour,
+// so every inner wall is stored exactly once. Outer border walls are always present.
+// Terrain costs, when a maze has any, are one unsigned byte per cell next to the walls.
+public class MazeGrid implements Maze {
+
+    public static final int TOP = 1;
+    public static final int RIGHT = 2;
+    public static final int BOTTOM = 4;
+    public static final int LEFT = 8;
+
+    public static final int[] SIDES = {TOP, RIGHT, BOTTOM, LEFT};
+
+    public static final int MAX_COST = 255;
+
+    private final int cols;
+    private final int rows;
+    private final long[] walls;
+    // Per-cell costs and how many cells have each cost; both null while every cost is 1
+    private byte[] costs;
+    private int[] costCounts;
+    private int modCount;
+
+    public MazeGrid(int cols, int rows) {
+        if (cols <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Maze must be at least 1x1, got " + cols + "x" + rows);
+        }
+        if ((long) cols * rows > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Maze too large: " + cols + "x" + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.walls = new long[(cols * rows + 31) >>> 5];
+        Arrays.fill(walls, -1L);
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int size() {
+        return cols * rows;
+    }
+
+    @Override
+    public int id(int x, int y) {
+        return y * cols + x;
+    }
+
+    @Override
+    public int x(int id) {
+        return id % cols;
+    }
+
+    @Override
+    public int y(int id) {
+        return id / cols;
+    }
+
+    @Override
+    public int start() {
+        return 0;
+    }
+
+    @Override
+    public int goal() {
+        return cols * rows - 1;
+    }
+
+    // Put every wall back, as before carving
+    public void fillWalls() {
+        Arrays.fill(walls, -1L);
+        modCount++;
+    }
+
+    @Override
+    public int cost(int id) {
+        return costs == null ? 1 : costs[id] & 0xFF;
+    }
+
+    @Override
+    public int minCost() {
+        if (costCounts == null) return 1;
+        int c = 1;
+        while (costCounts[c] == 0) c++;
+        return c;
+    }
+
+    @Override
+    public int maxCost() {
+        if (costCounts == null) return 1;
+        int c = MAX_COST;
+        while (costCounts[c] == 0) c--;
+        return c;
+    }
+
+    public void setCost(int id, int cost) {
+        if (cost < 1 || cost > MAX_COST) {
+            throw new IllegalArgumentException("Cost must be in 1.." + MAX_COST + ", got " + cost);
+        }
+        if (costs == null) {
+            if (cost == 1) return;
+            costs = new byte[cols * rows];
+            Arrays.fill(costs, (byte) 1);
+            costCounts = new int[MAX_COST + 1];
+            costCounts[1] = costs.length;
+        }
+        costCounts[costs[id] & 0xFF]--;
+        costCounts[cost]++;
+        costs[id] = (byte) cost;
+        modCount++;
+    }
+
+    // Back to unit costs everywhere
+    public void clearCosts() {
+        costs = null;
+        costCounts = null;
+        modCount++;
+    }
+
+    @Override
+    public boolean hasWall(int id, int side) {
+        switch (side) {
+            case RIGHT:
+                return id % cols == cols - 1 || bit(id << 1);
+            case BOTTOM:
+                return id >= cols * (rows - 1) || bit((id << 1) + 1);
+            case LEFT:
+                return id % cols == 0 || bit((id - 1) << 1);
+            case TOP:
+                return id < cols || bit(((id - cols) << 1) + 1);
+            default:
+                throw new IllegalArgumentException("Unknown side: " + side);
+        }
+    }
+
+    // Bitmask of the sides (TOP/RIGHT/BOTTOM/LEFT) a walker can leave the cell through
+    @Override
+    public int openSides(int id) {
+        int x = id % cols;
+        int mask = 0;
+        if (id >= cols && !bit(((id - cols) << 1) + 1)) mask |= TOP;
+        if (x < cols - 1 && !bit(id << 1)) mask |= RIGHT;
+        if (id < cols * (rows - 1) && !bit((id << 1) + 1)) mask |= BOTTOM;
+        if (x > 0 && !bit((id - 1) << 1)) mask |= LEFT;
+        return mask;
+    }
+
+    public void setWall(int id, int side, boolean present) {
+        setWallBit(id, side, present);
+        modCount++;
+    }
+
+    // For generators filling in a grid nobody has read yet: skips modCount, which
+    // parallel tasks carving disjoint rows would otherwise all contend on
+    public void carve(int id, int side) {
+        setWallBit(id, side, false);
+    }
+
+    private void setWallBit(int id, int side, boolean present) {
+        int x = id % cols;
+        int index;
+        switch (side) {
+            case RIGHT:
+                if (x == cols - 1) return;
+                index = id << 1;
+                break;
+            case BOTTOM:
+                if (id >= cols * (rows - 1)) return;
+                index = (id << 1) + 1;
+                break;
+            case LEFT:
+                if (x == 0) return;
+                index = (id - 1) << 1;
+                break;
+            case TOP:
+                if (id < cols) return;
+                index = ((id - cols) << 1) + 1;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown side: " + side);
+        }
+        if (present) {
+            walls[index >>> 6] |= 1L << index;
+        } else {
+            walls[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    public static int opposite(int side) {
+        switch (side) {
+            case TOP:
+                return BOTTOM;
+            case RIGHT:
+                return LEFT;
+            case BOTTOM:
+                return TOP;
+            case LEFT:
+                return RIGHT;
+            default:
+                throw new IllegalArgumentException("Unknown side: " + side);
+        }
+    }
+
+    @Override
+    public int modCount() {
+        return modCount;
+    }
+
+    public MazeGrid copy() {
+        MazeGrid copy = new MazeGrid(cols, rows);
+        System.arraycopy(walls, 0, copy.walls, 0, walls.length);
+        if (costs != null) {
+            copy.costs = costs.clone();
+            copy.costCounts = costCounts.clone();
+        }
+        return copy;
+    }
+
+    // Raw wall words, two bits per cell; used by the file format and bulk readers
+    long[] words() {
+        return walls;
+    }
+
+    // Raw cost bytes, or null for unit costs; used by the file format
+    byte[] costs() {
+        return costs;
+    }
+
+    // Take over cost bytes read from a file; every byte must be in 1..MAX_COST
+    void setCosts(byte[] bytes) {
+        clearCosts();
+        for (int id = 0; id < bytes.length; id++) {
+            int cost = bytes[id] & 0xFF;
+            if (cost != 1) setCost(id, cost);
+        }
+    }
+
+    private boolean bit(int index) {
+        return (walls[index >>> 6] & (1L << index)) != 0;
+    }
+
+    // --- Adapters for code that still works with MazeView.Cell objects ---
+
+    public MazeView.Cell[][] toCells() {
+        MazeView.Cell[][] grid = new MazeView.Cell[cols][rows];
+        for (int x = 0; x < cols; x++) {
+            for (int y = 0; y < rows; y++) {
+                grid[x][y] = cell(id(x, y));
+            }
+        }
+        return grid;
+    }
+
+    public static MazeGrid fromCells(MazeView.Cell[][] grid, int cols, int rows) {
+        MazeGrid maze = new MazeGrid(cols, rows);
+        for (int x = 0; x < cols; x++) {
+            for (int y = 0; y < rows; y++) {
+                MazeView.Cell cell = grid[x][y];
+                int id = maze.id(x, y);
+                if (!cell.rightWall) maze.carve(id, RIGHT);
+                if (!cell.bottomWall) maze.carve(id, BOTTOM);
+            }
+        }
+        return maze;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.mazesolver;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+// Downsampled wall images for drawing a whole maze when cells are only a few pixels
+// wide. The base image is the classic raster form of the maze: 2 texels per cell,
+// odd texels are cell interiors, even ones are walls and corners. Each further level
+// halves the previous one with a 2x2 box filter. Built once per maze.
+public class MazeMipChain {
+
+    // Largest side of the base level; also keeps it under GPU texture limits
+    public static final int MAX_SIZE = 4096;
+    private static final int MIN_SIZE = 32;
+
+    private final int cols, rows;
+    private final int baseShift; // base level texel = 2^baseShift raster texels
+    private final List<Bitmap> levels = new ArrayList<>();
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final RectF dst = new RectF();
+
+    public MazeMipChain(Maze maze, int wallColor) {
+        this.cols = maze.cols();
+        this.rows = maze.rows();
+        paint.setColor(wallColor);
+
+        int shift = 0;
+        while (((Math.max(cols, rows) * 2 + 1) >> shift) > MAX_SIZE) shift++;
+        baseShift = shift;
+
+        int w = ((cols * 2 + 1) >> shift) + 1;
+        int h = ((rows * 2 + 1) >> shift) + 1;
+        byte[] level = rasterize(maze, shift, w, h);
+        levels.add(toBitmap(level, w, h));
+        while (Math.max(w, h) > MIN_SIZE) {
+            int nw = (w + 1) / 2, nh = (h + 1) / 2;
+            level = halve(level, w, h, nw, nh);
+            w = nw;
+            h = nh;
+            levels.add(toBitmap(level, w, h));
+        }
+    }
+
+    // Draw the level whose texels are closest to one screen pixel without being smaller.
+    // cellSize is the cell size in canvas units, screenCellPx how big a cell is on screen.
+    public void draw(Canvas canvas, int cellSize, float screenCellPx) {
+        float texelPx = screenCellPx / 2 * (1 << baseShift);
+        int level = 0;
+        while (texelPx < 1f && level < levels.size() - 1) {
+            texelPx *= 2;
+            level++;
+        }
+        Bitmap bitmap = levels.get(level);
+
+        // Raster texel i is centred on i * cellSize / 2; scale the whole level to match
+        float texel = cellSize / 2f * (1 << (baseShift + level));
+        dst.set(-cellSize / 4f, -cellSize / 4f,
+                -cellSize / 4f + bitmap.getWidth() * texel, -cellSize / 4f + bitmap.getHeight() * texel);
+        canvas.drawBitmap(bitmap, null, dst, paint);
+    }
+
+    public void recycle() {
+        for (Bitmap bitmap : levels) {
+            bitmap.recycle();
+        }
+        levels.clear();
+    }
+
+    // Average the raster form of the maze over blocks of 2^shift texels, one cell row at a time
+    private static byte[] rasterize(Maze maze, int shift, int w, int h) {
+        int cols = maze.cols(), rows = maze.rows();
+        int rasterW = cols * 2 + 1, rasterH = rows * 2 + 1;
+        int[] sums = new int[w];
+        byte[] out = new byte[w * h];
+        byte[] open = new byte[cols];
+        int block = 1 << shift;
+
+        for (int j = 0; j < rasterH; j++) {
+            // Even rows hold horizontal walls (the top side of cell row j / 2), odd rows cells
+            int y = j >> 1;
+            if (y < rows) maze.readRegion(0, y, cols, 1, open);
+            for (int i = 0; i < rasterW; i++) {
+                sums[i >> shift] += isWall(i, j, y, open, cols, rows) ? 255 : 0;
+            }
+            if (((j + 1) & (block - 1)) == 0 || j == rasterH - 1) {
+                int row = j >> shift;
+                int area = block * block;
+                for (int i = 0; i < w; i++) {
+                    out[row * w + i] = (byte) (sums[i] / area);
+                    sums[i] = 0;
+                }
+            }
+        }
+        return out;
+    }
+
+    private static boolean isWall(int i, int j, int y, byte[] open, int cols, int rows) {
+        int x = i >> 1;
+        boolean evenI = (i & 1) == 0, evenJ = (j & 1) == 0;
+        if (evenI && evenJ) return true;
+        if (!evenI && !evenJ) return false;
+        if (evenI) {
+            // Vertical wall on the left side of cell (x, y)
+            return x == 0 || x == cols || (open[x] & MazeGrid.LEFT) == 0;
+        }
+        // Horizontal wall on the top side of cell (x, y)
+        return y == 0 || y == rows || (open[x] & MazeGrid.TOP) == 0;
+    }
+
+    private static byte[] halve(byte[] src, int w, int h, int nw, int nh) {
+        byte[] out = new byte[nw * nh];
+        for (int y = 0; y < nh; y++) {
+            for (int x = 0; x < nw; x++) {
+                int sx = x * 2, sy = y * 2;
+                int sum = (src[sy * w + sx] & 0xFF)
+                        + (sx + 1 < w ? src[sy * w + sx + 1] & 0xFF : 0)
+                        + (sy + 1 < h ? src[(sy + 1) * w + sx] & 0xFF : 0)
+                        + (sx + 1 < w && sy + 1 < h ? src[(sy + 1) * w + sx + 1] & 0xFF : 0);
+                out[y * nw + x] = (byte) (sum >> 2);
+            }
+        }
+        return out;
+    }
+
+    private static Bitmap toBitmap(byte[] alpha, int w, int h) {
+        Bitmap bitmap = Bitmap.createBitmap(w, h, Bitmap.Config.ALPHA_8);
+        int stride = bitmap.getRowBytes();
+        ByteBuffer buffer = ByteBuffer.allocate(stride * h);
+        for (int y = 0; y < h; y++) {
+            buffer.position(y * stride);
+            buffer.put(alpha, y * w, w);
+        }
+        buffer.rewind();
+        bitmap.copyPixelsFromBuffer(buffer);
+        return bitmap;
+    }
+}
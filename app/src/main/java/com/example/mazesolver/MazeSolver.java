@@ -0,0 +1,25 @@
+package com.example.mazesolver;
+
+// A start-goal algorithm as the app and the benchmarks see it. Implementations are
+// stateless between calls or keep only per-maze caches, so one instance can be
+// registered once and used for every maze. Capabilities are bit flags.
+public interface MazeSolver {
+
+    // Always returns a shortest path
+    int OPTIMAL = 1;
+    // Has a usable path before it finishes and improves it while it runs
+    int ANYTIME = 1 << 1;
+    // Honours per-cell costs instead of counting steps
+    int WEIGHTED = 1 << 2;
+
+    String name();
+
+    int capabilities();
+
+    // Solve from maze.start() to maze.goal(); the listener may be null
+    SolveResult solve(Maze maze, SolveListener listener);
+
+    default boolean has(int capability) {
+        return (capabilities() & capability) == capability;
+    }
+}
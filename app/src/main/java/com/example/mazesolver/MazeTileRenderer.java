@@ -0,0 +1,128 @@
+package com.example.mazesolver;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.LruCache;
+
+// Draws the wall layer of any Maze as square tiles of tileCells x tileCells cells.
+// Each tile is rendered once into an ALPHA_8 bitmap from a region read and kept in
+// an LRU cache, so panning over a huge (even memory-mapped) maze only reads and
+// rasterises the tiles that come into view.
+public class MazeTileRenderer {
+
+    private final Maze maze;
+    private final int tileCells;
+    private final int cellSize;
+    private final Paint wallPaint = new Paint();
+    private final Paint tilePaint = new Paint();
+    private final LruCache<Long, Bitmap> tiles;
+
+    private final byte[] region;
+    private final float[] lines;
+
+    public MazeTileRenderer(Maze maze, int tileCells, int cellSize, int wallColor, int cacheBytes) {
+        this.maze = maze;
+        this.tileCells = tileCells;
+        this.cellSize = cellSize;
+        this.region = new byte[tileCells * tileCells];
+        // Up to 4 wall segments per cell, 4 floats each
+        this.lines = new float[tileCells * tileCells * 16];
+
+        wallPaint.setColor(0xFFFFFFFF);
+        wallPaint.setStrokeWidth(Math.max(1, cellSize / 18));
+        tilePaint.setColor(wallColor);
+
+        tiles = new LruCache<Long, Bitmap>(cacheBytes) {
+            @Override
+            protected int sizeOf(Long key, Bitmap bitmap) {
+                return bitmap.getRowBytes() * bitmap.getHeight();
+            }
+        };
+    }
+
+    public Maze getMaze() {
+        return maze;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    // Draw every tile that intersects the given rect, in maze pixel coordinates
+    public void draw(Canvas canvas, int left, int top, int right, int bottom) {
+        int tilePx = tileCells * cellSize;
+        int tx0 = Math.max(0, left / tilePx);
+        int ty0 = Math.max(0, top / tilePx);
+        int tx1 = Math.min((maze.cols() - 1) / tileCells, (right - 1) / tilePx);
+        int ty1 = Math.min((maze.rows() - 1) / tileCells, (bottom - 1) / tilePx);
+
+        for (int ty = ty0; ty <= ty1; ty++) {
+            for (int tx = tx0; tx <= tx1; tx++) {
+                canvas.drawBitmap(tile(tx, ty), tx * tilePx, ty * tilePx, tilePaint);
+            }
+        }
+    }
+
+    // Drop cached tiles, e.g. after walls change
+    public void invalidateAll() {
+        tiles.evictAll();
+    }
+
+    public void invalidateCell(int x, int y) {
+        tiles.remove(key(x / tileCells, y / tileCells));
+        // Walls on a tile edge are drawn half by each tile
+        if (x % tileCells == tileCells - 1) tiles.remove(key(x / tileCells + 1, y / tileCells));
+        if (y % tileCells == tileCells - 1) tiles.remove(key(x / tileCells, y / tileCells + 1));
+    }
+
+    private Bitmap tile(int tx, int ty) {
+        Long key = key(tx, ty);
+        Bitmap bitmap = tiles.get(key);
+        if (bitmap == null) {
+            bitmap = render(tx, ty);
+            tiles.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    private Bitmap render(int tx, int ty) {
+        int x0 = tx * tileCells;
+        int y0 = ty * tileCells;
+        int w = Math.min(tileCells, maze.cols() - x0);
+        int h = Math.min(tileCells, maze.rows() - y0);
+        maze.readRegion(x0, y0, w, h, region);
+
+        // Right and bottom walls for every cell, plus top/left along the tile's own edges;
+        // the neighbouring tile draws the other half of each shared edge line
+        int n = 0;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int open = region[y * w + x];
+                float left = x * cellSize, top = y * cellSize;
+                float right = left + cellSize, bottom = top + cellSize;
+                if (y == 0 && (open & MazeGrid.TOP) == 0) n = line(n, left, top, right, top);
+                if (x == 0 && (open & MazeGrid.LEFT) == 0) n = line(n, left, top, left, bottom);
+                if ((open & MazeGrid.BOTTOM) == 0) n = line(n, left, bottom, right, bottom);
+                if ((open & MazeGrid.RIGHT) == 0) n = line(n, right, top, right, bottom);
+            }
+        }
+
+        int tilePx = tileCells * cellSize;
+        Bitmap bitmap = Bitmap.createBitmap(tilePx, tilePx, Bitmap.Config.ALPHA_8);
+        new Canvas(bitmap).drawLines(lines, 0, n, wallPaint);
+        return bitmap;
+    }
+
+    private int line(int n, float x0, float y0, float x1, float y1) {
+        lines[n] = x0;
+        lines[n + 1] = y0;
+        lines[n + 2] = x1;
+        lines[n + 3] = y1;
+        return n + 4;
+    }
+
+    private static Long key(int tx, int ty) {
+        return ((long) ty << 32) | (tx & 0xFFFFFFFFL);
+    }
+}
@@ -8,8 +8,12 @@ public class MazeUtils {
 
     // Save maze grid to a file
     public static void saveMaze(Context context, String filename, MazeView.Cell[][] grid) {
-        try (ObjectOutputStream out = new ObjectOutputStream(context.openFileOutput(filename, Context.MODE_PRIVATE))) {
-            out.writeObject(grid);
+        saveMaze(context, filename, MazeGrid.fromCells(grid, grid.length, grid[0].length));
+    }
+
+    public static void saveMaze(Context context, String filename, MazeGrid maze) {
+        try (FileOutputStream out = context.openFileOutput(filename, Context.MODE_PRIVATE)) {
+            new MazeFile(maze, 0L).write(out.getChannel(), false);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -17,9 +21,15 @@ public class MazeUtils {
 
     // Load maze grid from a file
     public static MazeView.Cell[][] loadMaze(Context context, String filename) {
-        try (ObjectInputStream in = new ObjectInputStream(context.openFileInput(filename))) {
-            return (MazeView.Cell[][]) in.readObject();
-        } catch (IOException | ClassNotFoundException e) {
+        MazeGrid maze = loadMazeGrid(context, filename);
+        return maze != null ? maze.toCells() : null;
+    }
+
+    // Reads the binary format as well as old serialized Cell[][] files
+    public static MazeGrid loadMazeGrid(Context context, String filename) {
+        try (FileInputStream in = context.openFileInput(filename)) {
+            return MazeFile.read(in.getChannel()).maze;
+        } catch (IOException e) {
             e.printStackTrace();
             return null;
         }
@@ -6,10 +6,12 @@ import android.content.SharedPreferences;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Rect;
 import android.os.Handler;
 import android.util.AttributeSet;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
 import android.view.View;
 import android.widget.EditText;
 import android.widget.Toast;
@@ -21,26 +23,108 @@ public class MazeView extends View {
 
     private int cols = 13, rows = 13;
     private final int cellSize = 75;
-    private Cell[][] grid;
-    private List<List<Cell>> allPaths = new ArrayList<>();
+    private MazeGrid maze;
+    private long seed;
     private List<Cell> solvedPath = new ArrayList<>();
     private Set<Cell> visitedCells = new HashSet<>();
-    private List<Cell> playerPath = new ArrayList<>();
 
     private final Handler handler = new Handler();
-    private int animationSpeed = 50;
+    private final ParallelMazeGenerator generator = new ParallelMazeGenerator();
+    private static final int EXTRA_PASSAGES = 10;
 
     private int playerX = 0, playerY = 0;
+    // Cost paid so far; with the distance field every move updates the remaining
+    // cost and the detour in O(1), without searching
+    private int playerCost;
+    // Built off the UI thread after every change to the maze and null until it
+    // arrives; a newer change supersedes a build that has not finished
+    private DistanceField distanceField;
+    private final SolverExecutor fieldBuilder = new SolverExecutor(1, handler::post);
+    // New mazes are generated here; a 2000 x 2000 one takes a few hundred ms
+    private final SolverExecutor mazeBuilder = new SolverExecutor(1, handler::post);
+    // The player reached the goal before the field was ready
+    private boolean scorePending;
 
-    private final Paint wallPaint = new Paint();
     private final Paint paint = new Paint();
+    private final Paint visitedPaint = new Paint();
+    private final Paint frontierPaint = new Paint();
+    private final Paint pathPaint = new Paint();
+    private final Paint readoutPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final float readoutPadding;
+    // Last measured solve, drawn under the readout while the metrics overlay is on
+    private SolveMetrics shownMetrics;
+
+    // Static wall layer, rendered once per tile and cached as bitmaps. Zoomed out,
+    // smaller tiles drawn at 16 px per cell are used instead, and once cells are
+    // only a few pixels wide the whole maze comes from a downsampled mip chain.
+    private static final int TILE_CELLS = 8;
+    private static final int COARSE_CELL_SIZE = 16;
+    private static final int COARSE_TILE_CELLS = 32;
+    private static final float DETAIL_CELL_PX = 40f;
+    private static final float COARSE_CELL_PX = 8f;
+    private MazeTileRenderer wallRenderer;
+    private MazeTileRenderer coarseRenderer;
+    // Built off the UI thread; after a wall edit the old chain stays up until the
+    // rebuilt one is swapped in, since at that zoom one wall is under a pixel
+    private MazeMipChain mipChain;
+    private int mipModCount;
+    private final SolverExecutor mipBuilder = new SolverExecutor(1, handler::post);
+    private CostShading costShading;
+    private boolean terrain;
+    // Kept across wall edits so each one only repairs the path; dropped with the maze.
+    // Its first search is a full A*, so it is built off the UI thread on the first
+    // edit, and that edit's path is shown when it arrives.
+    private LpaStarSolver planner;
+    private final SolverExecutor plannerBuilder = new SolverExecutor(1, handler::post);
+    private boolean plannerPathPending;
+    private Runnable onMazeEdited;
+
+    // Viewport: view pixel = maze pixel * scale + offset. Pinch to zoom, drag with
+    // two fingers to pan, double tap to fit the whole maze again.
+    private float scale = 1f, minScale = 1f, maxScale = 2f;
+    private float offsetX, offsetY;
+    private float lastFocusX, lastFocusY;
+    private final ScaleGestureDetector scaleDetector;
+
+    // Overlays are kept as batched point/line arrays so each is a single draw call
+    private float[] visitedPoints = new float[0];
+    private int visitedPointCount;
+    private float[] frontierPoints = new float[0];
+    private int frontierPointCount;
+    private float[] pathLines = new float[0];
+    private int pathSegmentsShown;
+    private final Rect clip = new Rect();
+
+    // Progressive solve: events are pulled from the queue a frame's budget at a time,
+    // in chunks so a large budget still stops once the frame's time is used up
+    private static final int FRAME_MILLIS = 16;
+    private static final long FRAME_BUDGET_NANOS = 6_000_000L;
+    private SolveEventQueue solveEvents;
+    // The posted frame step; the handler also delivers the builders' results, so
+    // stopping the animation removes only this, never everything queued
+    private Runnable frame;
+    private final int[] frameEvents = new int[1024];
+    private int lastPathCell = -1;
+    // Set once the solve has returned; its path is drawn at once, not from events
+    private boolean solveDone;
+    private final Rect dirty = new Rect();
     private final GestureDetector gestureDetector;
 
     public MazeView(Context context, AttributeSet attrs) {
         super(context, attrs);
 
-        wallPaint.setColor(Color.WHITE);
-        wallPaint.setStrokeWidth(4);
+        visitedPaint.setColor(Color.YELLOW);
+        visitedPaint.setStrokeWidth(cellSize / 3f);
+        visitedPaint.setStrokeCap(Paint.Cap.ROUND);
+        frontierPaint.setColor(Color.rgb(255, 140, 0));
+        frontierPaint.setStrokeWidth(cellSize / 5f);
+        frontierPaint.setStrokeCap(Paint.Cap.ROUND);
+        pathPaint.setColor(Color.CYAN);
+        pathPaint.setStrokeWidth(6);
+        float density = context.getResources().getDisplayMetrics().density;
+        readoutPaint.setColor(Color.WHITE);
+        readoutPaint.setTextSize(14 * density);
+        readoutPadding = 8 * density;
 
         gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
             private static final int SWIPE_THRESHOLD = 50;
@@ -60,43 +144,231 @@ public class MazeView extends View {
                 return true;
             }
 
+            @Override
+            public boolean onDoubleTap(MotionEvent e) {
+                fitToView();
+                invalidate();
+                return true;
+            }
+
+            @Override
+            public void onLongPress(MotionEvent e) {
+                toggleWallAt(e.getX(), e.getY());
+            }
+
             @Override
             public boolean onDown(MotionEvent e) {
                 return true;
             }
         });
 
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScaleBegin(ScaleGestureDetector detector) {
+                lastFocusX = detector.getFocusX();
+                lastFocusY = detector.getFocusY();
+                return true;
+            }
+
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                float fx = detector.getFocusX(), fy = detector.getFocusY();
+                float newScale = Math.max(minScale, Math.min(maxScale, scale * detector.getScaleFactor()));
+                float factor = newScale / scale;
+                // Keep the maze point under the fingers in place, then follow the fingers
+                offsetX = fx - (lastFocusX - offsetX) * factor;
+                offsetY = fy - (lastFocusY - offsetY) * factor;
+                scale = newScale;
+                lastFocusX = fx;
+                lastFocusY = fy;
+                clampOffsets();
+                invalidate();
+                return true;
+            }
+        });
+
         initMaze();
     }
 
     private void initMaze() {
-        grid = new Cell[cols][rows];
-        for (int x = 0; x < cols; x++) {
-            for (int y = 0; y < rows; y++) {
-                grid[x][y] = new Cell(x, y);
-            }
+        maze = generateMazeWithExtraPaths(EXTRA_PASSAGES);
+        if (terrain) Terrain.paint(maze, seed);
+        onMazeChanged();
+    }
+
+    // Show a new maze in place of the current one, with the whole of it in view
+    private void installMaze(MazeGrid grid, long mazeSeed) {
+        stopAnimation();
+        maze = grid;
+        seed = mazeSeed;
+        cols = grid.cols();
+        rows = grid.rows();
+        onMazeChanged();
+        fitToView();
+        solvedPath = new ArrayList<>();
+        visitedCells = new HashSet<>();
+        clearOverlays();
+        resetPlayer();
+        invalidate();
+    }
+
+    private void onMazeChanged() {
+        int cacheBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 16, 32 << 20);
+        wallRenderer = new MazeTileRenderer(maze, TILE_CELLS, cellSize, Color.WHITE, cacheBytes);
+        coarseRenderer = new MazeTileRenderer(maze, COARSE_TILE_CELLS, COARSE_CELL_SIZE, Color.WHITE, cacheBytes / 2);
+        mipBuilder.cancel();
+        if (mipChain != null) {
+            mipChain.recycle();
+            mipChain = null;
         }
-        generateMazeWithExtraPaths(10);
+        updateCostShading();
+        dropPlanner();
+        rebuildDistanceField();
     }
 
-    public void resetMaze() {
-        initMaze();
-        solvedPath.clear();
-        visitedCells.clear();
-        allPaths.clear();
-        playerX = 0;
-        playerY = 0;
-        playerPath.clear();
+    private void updateCostShading() {
+        if (costShading != null) {
+            costShading.recycle();
+            costShading = null;
+        }
+        if (maze.minCost() != maze.maxCost()) costShading = new CostShading(maze, Color.rgb(170, 110, 40));
+    }
+
+    public boolean hasTerrain() {
+        return maze.minCost() != maze.maxCost();
+    }
+
+    // Paint terrain costs on this maze and every new one, or go back to unit costs
+    public void setTerrain(boolean enabled) {
+        terrain = enabled;
+        stopAnimation();
+        clearOverlays();
+        if (enabled) {
+            Terrain.paint(maze, seed);
+        } else {
+            maze.clearCosts();
+        }
+        updateCostShading();
+        dropPlanner();
+        rebuildDistanceField();
         invalidate();
     }
 
+    // Called before a wall edit or a newly generated maze changes the maze, so
+    // running solves can be dropped
+    public void setOnMazeEdited(Runnable listener) {
+        onMazeEdited = listener;
+    }
+
+    // Open or close the wall of the pressed cell nearest the touch point and show
+    // the repaired shortest path
+    private void toggleWallAt(float screenX, float screenY) {
+        float mx = (screenX - offsetX) / scale / cellSize, my = (screenY - offsetY) / scale / cellSize;
+        int x = (int) Math.floor(mx), y = (int) Math.floor(my);
+        if (x < 0 || y < 0 || x >= cols || y >= rows) return;
+        float fx = mx - x, fy = my - y;
+        int side;
+        if (Math.min(fx, 1 - fx) < Math.min(fy, 1 - fy)) {
+            side = fx < 0.5f ? MazeGrid.LEFT : MazeGrid.RIGHT;
+        } else {
+            side = fy < 0.5f ? MazeGrid.TOP : MazeGrid.BOTTOM;
+        }
+        int id = maze.id(x, y);
+        int other = maze.neighbor(id, side);
+        if (other < 0) return;
+
+        if (onMazeEdited != null) onMazeEdited.run();
+        stopAnimation();
+        clearOverlays();
+        if (planner != null) {
+            planner.setWall(id, side, !maze.hasWall(id, side));
+        } else {
+            maze.setWall(id, side, !maze.hasWall(id, side));
+            plannerPathPending = true;
+            buildPlanner();
+        }
+        rebuildDistanceField();
+
+        wallRenderer.invalidateCell(x, y);
+        wallRenderer.invalidateCell(maze.x(other), maze.y(other));
+        coarseRenderer.invalidateCell(x, y);
+        coarseRenderer.invalidateCell(maze.x(other), maze.y(other));
+        if (planner != null) {
+            setSolvedPath(planner.path());
+        } else {
+            invalidate();
+        }
+    }
+
+    // Seed the planner with a full search of the maze as it is now
+    private void buildPlanner() {
+        MazeGrid target = maze;
+        int modCount = target.modCount();
+        plannerBuilder.submit(() -> {
+            LpaStarSolver seeded = new LpaStarSolver(target);
+            seeded.solve();
+            return seeded;
+        }, seeded -> {
+            if (maze != target) return;
+            // Edited by something other than the planner while it was searching
+            if (target.modCount() != modCount) {
+                buildPlanner();
+                return;
+            }
+            planner = seeded;
+            if (plannerPathPending) setSolvedPath(seeded.path());
+        });
+    }
+
+    private void dropPlanner() {
+        plannerBuilder.cancel();
+        planner = null;
+        plannerPathPending = false;
+    }
+
+    // Generate a new maze of the given size off the UI thread. The current maze stays
+    // up until the new one is ready; the viewport then zooms out to show all of it.
+    public void setMazeSize(int cols, int rows) {
+        long mazeSeed = new SplittableRandom().nextLong();
+        mazeBuilder.submit(() -> generator.generate(cols, rows, EXTRA_PASSAGES, mazeSeed), grid -> {
+            if (terrain) Terrain.paint(grid, mazeSeed);
+            if (onMazeEdited != null) onMazeEdited.run();
+            installMaze(grid, mazeSeed);
+        });
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        fitToView();
+    }
+
+    private void fitToView() {
+        if (getWidth() == 0 || getHeight() == 0) return;
+        minScale = Math.min((float) getWidth() / (cols * cellSize), (float) getHeight() / (rows * cellSize));
+        maxScale = Math.max(minScale, 2f);
+        scale = minScale;
+        clampOffsets();
+    }
+
+    // Centre the maze along any axis where it fits, otherwise keep the view inside it
+    private void clampOffsets() {
+        float width = cols * cellSize * scale, height = rows * cellSize * scale;
+        offsetX = width <= getWidth() ? (getWidth() - width) / 2 : Math.max(getWidth() - width, Math.min(0, offsetX));
+        offsetY = height <= getHeight() ? (getHeight() - height) / 2 : Math.max(getHeight() - height, Math.min(0, offsetY));
+    }
+
+    // A new maze of the current size
+    public void resetMaze() {
+        setMazeSize(cols, rows);
+    }
+
     // Save maze with name
     public void saveMaze(Context context, String name) {
         try {
             FileOutputStream fos = context.openFileOutput(name + ".maze", Context.MODE_PRIVATE);
-            ObjectOutputStream out = new ObjectOutputStream(fos);
-            out.writeObject(grid);
-            out.close();
+            new MazeFile(maze, seed).write(fos.getChannel(), false);
+            fos.close();
 
             // Update saved maze list
             SharedPreferences prefs = context.getSharedPreferences("maze_prefs", Context.MODE_PRIVATE);
@@ -113,13 +385,14 @@ public class MazeView extends View {
     // Load maze by name
     public void loadMaze(Context context, String name) {
         try {
+            // Also reads mazes saved in the old serialized Cell[][] format
             FileInputStream fis = context.openFileInput(name + ".maze");
-            ObjectInputStream in = new ObjectInputStream(fis);
-            grid = (Cell[][]) in.readObject();
-            in.close();
-            invalidate();
+            MazeFile file = MazeFile.read(fis.getChannel());
+            fis.close();
+            mazeBuilder.cancel();
+            installMaze(file.maze, file.seed);
             Toast.makeText(context, "Loaded maze: " + name, Toast.LENGTH_SHORT).show();
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
@@ -147,42 +420,23 @@ public class MazeView extends View {
 
         canvas.drawColor(Color.BLACK);
 
-        paint.setColor(Color.WHITE);
-        paint.setStrokeWidth(4);
-        for (int x = 0; x < cols; x++) {
-            for (int y = 0; y < rows; y++) {
-                Cell cell = grid[x][y];
-                int left = cell.x * cellSize;
-                int top = cell.y * cellSize;
-                int right = (cell.x + 1) * cellSize;
-                int bottom = (cell.y + 1) * cellSize;
-
-                if (cell.topWall) canvas.drawLine(left, top, right, top, paint);
-                if (cell.leftWall) canvas.drawLine(left, top, left, bottom, paint);
-                if (cell.bottomWall) canvas.drawLine(left, bottom, right, bottom, paint);
-                if (cell.rightWall) canvas.drawLine(right, top, right, bottom, paint);
-            }
-        }
+        canvas.save();
+        canvas.translate(offsetX, offsetY);
+        canvas.scale(scale, scale);
 
-        paint.setColor(Color.YELLOW);
-        paint.setStyle(Paint.Style.FILL);
-        for (Cell cell : visitedCells) {
-            float cx = (cell.x + 0.5f) * cellSize;
-            float cy = (cell.y + 0.5f) * cellSize;
-            canvas.drawCircle(cx, cy, cellSize / 6f, paint);
+        // Clip bounds are now in maze pixels; only the wall tiles under them are blitted
+        if (!canvas.getClipBounds(clip)) {
+            canvas.restore();
+            return;
         }
+        if (costShading != null) costShading.draw(canvas, cellSize);
+        drawWalls(canvas);
 
-        if (solvedPath != null && !solvedPath.isEmpty()) {
-            paint.setColor(Color.CYAN);
-            paint.setStrokeWidth(6);
-            for (int i = 0; i < solvedPath.size() - 1; i++) {
-                Cell c1 = solvedPath.get(i);
-                Cell c2 = solvedPath.get(i + 1);
-                canvas.drawLine((c1.x + 0.5f) * cellSize, (c1.y + 0.5f) * cellSize,
-                        (c2.x + 0.5f) * cellSize, (c2.y + 0.5f) * cellSize, paint);
-            }
-        }
+        canvas.drawPoints(frontierPoints, 0, frontierPointCount, frontierPaint);
+        canvas.drawPoints(visitedPoints, 0, visitedPointCount, visitedPaint);
+        canvas.drawLines(pathLines, 0, pathSegmentsShown * 4, pathPaint);
 
+        paint.setStyle(Paint.Style.FILL);
         paint.setColor(Color.BLUE);
         float px = (playerX + 0.5f) * cellSize;
         float py = (playerY + 0.5f) * cellSize;
@@ -193,6 +447,132 @@ public class MazeView extends View {
         canvas.drawCircle(cellSize / 2f, cellSize / 2f, cellSize / 4f, paint);
         paint.setColor(Color.RED);
         canvas.drawCircle((cols - 0.5f) * cellSize, (rows - 0.5f) * cellSize, cellSize / 4f, paint);
+
+        canvas.restore();
+        drawReadout(canvas);
+    }
+
+    // Remaining cost and detour so far, in screen pixels at the top left
+    private void drawReadout(Canvas canvas) {
+        DistanceField field = distanceField;
+        int remaining = field == null ? 0 : field.distance(maze.id(playerX, playerY));
+        String text;
+        if (field == null) {
+            text = "Remaining \u2026";
+        } else if (remaining < 0) {
+            text = "Goal unreachable";
+        } else {
+            int detour = Math.max(0, playerCost + remaining - field.distance(maze.start()));
+            text = "Remaining " + remaining + "   Detour +" + detour;
+        }
+        float lineHeight = readoutPaint.descent() - readoutPaint.ascent();
+        float baseline = readoutPadding - readoutPaint.ascent();
+        canvas.drawText(text, readoutPadding, baseline, readoutPaint);
+        if (shownMetrics == null) return;
+
+        SolveMetrics m = shownMetrics;
+        Histogram wall = Metrics.histogram(m.solver + ".wall_us");
+        String[] lines = {
+                String.format(Locale.ROOT, "%s  %.2f ms  cpu %.2f ms", m.solver, m.totalWallNanos / 1e6, m.totalCpuNanos / 1e6),
+                String.format(Locale.ROOT, "setup %.2f  search %.2f  path %.2f ms", m.wallNanos[SolveMetrics.SETUP] / 1e6,
+                        m.wallNanos[SolveMetrics.SEARCH] / 1e6, m.wallNanos[SolveMetrics.PATH] / 1e6),
+                String.format(Locale.ROOT, "expanded %d  queue %d/%d/%d  peak %d", m.expanded, m.queuePushes,
+                        m.queuePops, m.queueUpdates, m.peakFrontier),
+                // Waiting on the animation and per-maze preprocessing are kept out of the
+                // times above and shown here
+                m.allocatedBytes < 0
+                        ? String.format(Locale.ROOT, "path %d  waited %.2f ms  prep %.2f ms", m.pathLength,
+                        m.blockedNanos / 1e6, m.preprocessWallNanos / 1e6)
+                        : String.format(Locale.ROOT, "path %d  allocated %d KB  waited %.2f ms  prep %.2f ms",
+                        m.pathLength, m.allocatedBytes / 1024, m.blockedNanos / 1e6, m.preprocessWallNanos / 1e6),
+                String.format(Locale.ROOT, "p50 %.2f ms  p90 %.2f ms  over %d solves", wall.percentile(0.5) / 1e3,
+                        wall.percentile(0.9) / 1e3, wall.count())
+        };
+        for (String line : lines) {
+            baseline += lineHeight;
+            canvas.drawText(line, readoutPadding, baseline, readoutPaint);
+        }
+    }
+
+    // Show a solve's metrics under the readout; null hides them
+    public void showMetrics(SolveMetrics metrics) {
+        shownMetrics = metrics;
+        invalidate();
+    }
+
+    private void invalidateReadout() {
+        invalidate(0, 0, getWidth(), (int) Math.ceil(2 * readoutPadding + readoutPaint.descent() - readoutPaint.ascent()));
+    }
+
+    // A full search over the maze, so it never runs on the UI thread; the readout
+    // shows no numbers until the new field arrives
+    private void rebuildDistanceField() {
+        distanceField = null;
+        MazeGrid target = maze;
+        int modCount = target.modCount();
+        fieldBuilder.submit(() -> DistanceField.toGoal(target), new SolverExecutor.Callback<DistanceField>() {
+            @Override
+            public void onResult(DistanceField field) {
+                if (maze != target) return;
+                // Changed by something that did not ask for a rebuild
+                if (target.modCount() != modCount) {
+                    rebuildDistanceField();
+                    return;
+                }
+                distanceField = field;
+                invalidateReadout();
+                if (scorePending) evaluatePlayerPath();
+            }
+        });
+    }
+
+    private void rebuildMipChain() {
+        MazeGrid target = maze;
+        int modCount = target.modCount();
+        mipBuilder.submit(() -> new MazeMipChain(target, Color.WHITE), chain -> {
+            if (maze != target) {
+                chain.recycle();
+                return;
+            }
+            if (mipChain != null) mipChain.recycle();
+            mipChain = chain;
+            mipModCount = modCount;
+            invalidate();
+        });
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        fieldBuilder.cancel();
+        mazeBuilder.cancel();
+        plannerBuilder.cancel();
+        mipBuilder.cancel();
+    }
+
+    private void resetPlayer() {
+        playerX = 0;
+        playerY = 0;
+        playerCost = 0;
+        scorePending = false;
+    }
+
+    private void drawWalls(Canvas canvas) {
+        float cellPx = cellSize * scale;
+        if (cellPx >= DETAIL_CELL_PX) {
+            wallRenderer.draw(canvas, clip.left, clip.top, clip.right, clip.bottom);
+        } else if (cellPx >= COARSE_CELL_PX) {
+            float k = (float) cellSize / COARSE_CELL_SIZE;
+            canvas.save();
+            canvas.scale(k, k);
+            coarseRenderer.draw(canvas, (int) (clip.left / k), (int) (clip.top / k),
+                    (int) Math.ceil(clip.right / k), (int) Math.ceil(clip.bottom / k));
+            canvas.restore();
+        } else {
+            // Built on first use, then rebuilt in the background after edits
+            if ((mipChain == null || mipModCount != maze.modCount()) && !mipBuilder.isBusy()) rebuildMipChain();
+            if (mipChain != null) mipChain.draw(canvas, cellSize, cellPx);
+        }
     }
 
     private void movePlayer(int dx, int dy) {
@@ -200,40 +580,35 @@ public class MazeView extends View {
         int newY = playerY + dy;
 
         if (newX < 0 || newY < 0 || newX >= cols || newY >= rows) return;
+        int oldX = playerX, oldY = playerY;
 
-        Cell current = grid[playerX][playerY];
-        Cell next = grid[newX][newY];
+        int current = maze.id(playerX, playerY);
+        int open = maze.openSides(current);
 
         boolean moved = false;
 
-        // Add the starting point only once
-        if (playerPath.isEmpty()) {
-            playerPath.add(current);
-        }
-
-        if (dx == -1 && !current.leftWall) {
+        if (dx == -1 && (open & MazeGrid.LEFT) != 0) {
             playerX--;
             moved = true;
-        } else if (dx == 1 && !current.rightWall) {
+        } else if (dx == 1 && (open & MazeGrid.RIGHT) != 0) {
             playerX++;
             moved = true;
-        } else if (dy == -1 && !current.topWall) {
+        } else if (dy == -1 && (open & MazeGrid.TOP) != 0) {
             playerY--;
             moved = true;
-        } else if (dy == 1 && !current.bottomWall) {
+        } else if (dy == 1 && (open & MazeGrid.BOTTOM) != 0) {
             playerY++;
             moved = true;
         }
 
         if (moved) {
-            Cell visited = grid[playerX][playerY];
-            if (!playerPath.contains(visited)) {
-                playerPath.add(visited);
-            }
+            int id = maze.id(playerX, playerY);
+            playerCost += maze.cost(id);
 
-            invalidate();
+            invalidateCells(oldX, oldY, playerX, playerY);
+            invalidateReadout();
 
-            if (playerX == cols - 1 && playerY == rows - 1) {
+            if (id == maze.goal()) {
                 evaluatePlayerPath();
                 Toast.makeText(getContext(), "🎉 You reached the goal!", Toast.LENGTH_SHORT).show();
             }
@@ -241,77 +616,227 @@ public class MazeView extends View {
     }
 
 
+    // 10 for a run as cheap as the best path, falling in proportion to the extra cost
     private void evaluatePlayerPath() {
-        DijkstraSolver solver = new DijkstraSolver(grid, cols, rows);
-        DijkstraSolver.Result result = solver.solve();
-        List<Cell> optimalPath = result.path;
-
-        if (optimalPath == null || optimalPath.isEmpty()) {
+        scorePending = distanceField == null;
+        if (scorePending) return;
+        int optimal = distanceField.distance(maze.start());
+        if (optimal <= 0 || playerCost <= 0) {
             Toast.makeText(getContext(), "No optimal path found!", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        int matchCount = 0;
-        int len = Math.min(playerPath.size(), optimalPath.size());
+        int score = Math.round(10f * Math.min(optimal, playerCost) / playerCost);
+        Toast.makeText(getContext(), "Your score: " + score + "/10 (cost " + playerCost + ", best " + optimal + ")",
+                Toast.LENGTH_LONG).show();
+    }
 
-        for (int i = 0; i < len; i++) {
-            Cell userCell = playerPath.get(i);
-            Cell optimalCell = optimalPath.get(i);
 
-            if (userCell.x == optimalCell.x && userCell.y == optimalCell.y) {
-                matchCount++;
-            } else {
-                break; // Only consecutive matches from the beginning
-            }
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        scaleDetector.onTouchEvent(event);
+        // Swipes move the player; two-finger gestures only zoom and pan
+        if (!scaleDetector.isInProgress() && event.getPointerCount() == 1) {
+            gestureDetector.onTouchEvent(event);
         }
+        return true;
+    }
 
-        float similarity = (float) matchCount / optimalPath.size();
-        int score = Math.round(similarity * 10);
+    // Step through a running solve as its events arrive. At most eventsPerFrame
+    // events are applied per frame, fewer if applying them overruns the frame's time
+    // budget; the solver waits whenever the queue is full.
+    public void animateSolve(SolveEventQueue events, int eventsPerFrame) {
+        stopAnimation();
+        clearOverlays();
+        solveEvents = events;
+        solveDone = false;
+        solvedPath = new ArrayList<>();
+        visitedCells = new HashSet<>();
+        invalidate();
 
-        Toast.makeText(getContext(), "Your score: " + score + "/10", Toast.LENGTH_LONG).show();
+        frame = new Runnable() {
+            @Override
+            public void run() {
+                if (solveEvents != events) return;
+                long deadline = System.nanoTime() + FRAME_BUDGET_NANOS;
+                for (int left = eventsPerFrame; left > 0 && System.nanoTime() < deadline; ) {
+                    int n = events.drain(frameEvents, Math.min(left, frameEvents.length));
+                    if (n == 0) break;
+                    applyEvents(n);
+                    left -= n;
+                }
+                if (!events.isFinished()) handler.postDelayed(this, FRAME_MILLIS);
+            }
+        };
+        handler.post(frame);
     }
 
+    // True while a streamed solve is still being stepped through
+    public boolean isAnimatingSolve() {
+        return solveEvents != null && !solveEvents.isFinished();
+    }
 
-    @Override
-    public boolean onTouchEvent(MotionEvent event) {
-        return gestureDetector.onTouchEvent(event);
+    // Jump to the end of the streamed solve: the solver stops feeding the animation
+    // and the overlays show its result, now or as soon as it arrives
+    public void skipSolveAnimation() {
+        if (solveEvents == null) return;
+        solveEvents.skip();
+        solveEvents = null;
+        handler.removeCallbacks(frame);
+        frame = null;
+        if (solveDone) showVisited(visitedCells);
     }
 
-    public void animateSolvedPath(List<Cell> path, Set<Cell> visited) {
+    // Final result of a streamed solve. The path is drawn right away; the explored
+    // cells keep coming from the events unless the animation was skipped.
+    public void setSolveResult(List<Cell> path, Set<Cell> visited) {
         this.solvedPath = path;
         this.visitedCells = visited;
+        solveDone = true;
+        pathLines = pathSegments(path);
+        pathSegmentsShown = Math.max(0, path.size() - 1);
+        if (solveEvents == null) {
+            showVisited(visited);
+        } else {
+            invalidate();
+        }
+    }
 
-        Runnable runnable = new Runnable() {
-            int index = 0;
+    private void showVisited(Set<Cell> visited) {
+        if (visited instanceof VisitedCellSet) {
+            // Read the bits directly instead of making a Cell per visited cell
+            VisitedCellSet cells = (VisitedCellSet) visited;
+            visitedPoints = new float[cells.size() * 2];
+            int i = 0;
+            for (int id = 0, n = cols * rows; id < n && i < visitedPoints.length; id++) {
+                if (!cells.containsId(id)) continue;
+                visitedPoints[i++] = (id % cols + 0.5f) * cellSize;
+                visitedPoints[i++] = (id / cols + 0.5f) * cellSize;
+            }
+        } else {
+            visitedPoints = cellCenters(visited);
+        }
+        visitedPointCount = visitedPoints.length;
+        frontierPointCount = 0;
+        invalidate();
+    }
 
-            @Override
-            public void run() {
-                if (index < path.size()) {
-                    invalidate();
-                    index++;
-                    handler.postDelayed(this, animationSpeed);
-                }
+    private void applyEvents(int count) {
+        dirty.setEmpty();
+        for (int i = 0; i < count; i++) {
+            int event = frameEvents[i];
+            int id = SolveListener.cell(event);
+            int x = id % cols, y = id / cols;
+            float cx = (x + 0.5f) * cellSize, cy = (y + 0.5f) * cellSize;
+            switch (SolveListener.type(event)) {
+                case SolveListener.EXPANDED:
+                    visitedPoints = ensureRoom(visitedPoints, visitedPointCount + 2);
+                    visitedPoints[visitedPointCount++] = cx;
+                    visitedPoints[visitedPointCount++] = cy;
+                    break;
+                case SolveListener.FRONTIER:
+                    frontierPoints = ensureRoom(frontierPoints, frontierPointCount + 2);
+                    frontierPoints[frontierPointCount++] = cx;
+                    frontierPoints[frontierPointCount++] = cy;
+                    break;
+                case SolveListener.PATH:
+                    if (solveDone) break;
+                    if (lastPathCell >= 0) {
+                        int n = pathSegmentsShown * 4;
+                        pathLines = ensureRoom(pathLines, n + 4);
+                        pathLines[n] = (lastPathCell % cols + 0.5f) * cellSize;
+                        pathLines[n + 1] = (lastPathCell / cols + 0.5f) * cellSize;
+                        pathLines[n + 2] = cx;
+                        pathLines[n + 3] = cy;
+                        pathSegmentsShown++;
+                        dirty.union((lastPathCell % cols) * cellSize, (lastPathCell / cols) * cellSize,
+                                (lastPathCell % cols + 1) * cellSize, (lastPathCell / cols + 1) * cellSize);
+                    }
+                    lastPathCell = id;
+                    break;
             }
-        };
-        handler.post(runnable);
+            dirty.union(x * cellSize, y * cellSize, (x + 1) * cellSize, (y + 1) * cellSize);
+        }
+        if (!dirty.isEmpty()) invalidateMazeRect(dirty.left, dirty.top, dirty.right, dirty.bottom);
     }
 
-    public void setAnimationSpeed(int speed) {
-        animationSpeed = speed;
+    private static float[] ensureRoom(float[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    private void stopAnimation() {
+        if (frame != null) {
+            handler.removeCallbacks(frame);
+            frame = null;
+        }
+        if (solveEvents != null) {
+            solveEvents.abandon();
+            solveEvents = null;
+        }
+    }
+
+    private void clearOverlays() {
+        visitedPoints = new float[0];
+        visitedPointCount = 0;
+        frontierPoints = new float[0];
+        frontierPointCount = 0;
+        pathLines = new float[0];
+        pathSegmentsShown = 0;
+        lastPathCell = -1;
+        plannerPathPending = false;
     }
 
     public void setSolvedPath(List<Cell> path) {
+        stopAnimation();
+        plannerPathPending = false;
         this.solvedPath = path;
+        pathLines = pathSegments(path);
+        pathSegmentsShown = Math.max(0, path.size() - 1);
         invalidate();
     }
 
-    public void setAllPaths(List<List<Cell>> paths) {
-        this.allPaths = paths;
-        invalidate();
+    // Repaint just the cells spanning (x0, y0) to (x1, y1)
+    private void invalidateCells(int x0, int y0, int x1, int y1) {
+        invalidateMazeRect(Math.min(x0, x1) * cellSize, Math.min(y0, y1) * cellSize,
+                (Math.max(x0, x1) + 1) * cellSize, (Math.max(y0, y1) + 1) * cellSize);
+    }
+
+    // Repaint a rect given in maze pixels, mapped through the viewport
+    private void invalidateMazeRect(int left, int top, int right, int bottom) {
+        invalidate((int) Math.floor(left * scale + offsetX), (int) Math.floor(top * scale + offsetY),
+                (int) Math.ceil(right * scale + offsetX), (int) Math.ceil(bottom * scale + offsetY));
+    }
+
+    private float[] cellCenters(Collection<Cell> cells) {
+        float[] points = new float[cells.size() * 2];
+        int i = 0;
+        for (Cell cell : cells) {
+            points[i++] = (cell.x + 0.5f) * cellSize;
+            points[i++] = (cell.y + 0.5f) * cellSize;
+        }
+        return points;
+    }
+
+    private float[] pathSegments(List<Cell> path) {
+        float[] lines = new float[Math.max(0, path.size() - 1) * 4];
+        for (int i = 0; i < path.size() - 1; i++) {
+            Cell c1 = path.get(i);
+            Cell c2 = path.get(i + 1);
+            lines[i * 4] = (c1.x + 0.5f) * cellSize;
+            lines[i * 4 + 1] = (c1.y + 0.5f) * cellSize;
+            lines[i * 4 + 2] = (c2.x + 0.5f) * cellSize;
+            lines[i * 4 + 3] = (c2.y + 0.5f) * cellSize;
+        }
+        return lines;
     }
 
+    public MazeGrid getMaze() {
+        return maze;
+    }
+
+    // Cell objects built from the wall grid, for callers that still expect Cell[][]
     public Cell[][] getGrid() {
-        return grid;
+        return maze.toCells();
     }
 
     public int getCols() {
@@ -343,86 +868,13 @@ public class MazeView extends View {
 
         @Override
         public int hashCode() {
-            return Objects.hash(x, y);
+            return 31 * x + y;
         }
     }
 
-    private void generateMazeRecursiveBacktracking(int x, int y) {
-        Cell current = grid[x][y];
-        current.visited = true;
-
-        List<int[]> directions = Arrays.asList(
-                new int[]{0, -1}, new int[]{-1, 0},
-                new int[]{0, 1}, new int[]{1, 0}
-        );
-        Collections.shuffle(directions);
-
-        for (int[] dir : directions) {
-            int nx = x + dir[0];
-            int ny = y + dir[1];
-
-            if (nx >= 0 && ny >= 0 && nx < cols && ny < rows && !grid[nx][ny].visited) {
-                if (dir[0] == 1) {
-                    current.rightWall = false;
-                    grid[nx][ny].leftWall = false;
-                } else if (dir[0] == -1) {
-                    current.leftWall = false;
-                    grid[nx][ny].rightWall = false;
-                } else if (dir[1] == 1) {
-                    current.bottomWall = false;
-                    grid[nx][ny].topWall = false;
-                } else if (dir[1] == -1) {
-                    current.topWall = false;
-                    grid[nx][ny].bottomWall = false;
-                }
-                generateMazeRecursiveBacktracking(nx, ny);
-            }
-        }
-    }
-
-
-    private void generateMazeWithExtraPaths(int extraPassages) {
-        generateMazeRecursiveBacktracking(0, 0);
-        Random rand = new Random();
-
-        for (int i = 0; i < extraPassages; i++) {
-            int x = rand.nextInt(cols);
-            int y = rand.nextInt(rows);
-            int direction = rand.nextInt(4);
-
-            Cell current = grid[x][y];
-            Cell neighbor;
-
-            switch (direction) {
-                case 0:
-                    if (x < cols - 1) {
-                        neighbor = grid[x + 1][y];
-                        current.rightWall = false;
-                        neighbor.leftWall = false;
-                    }
-                    break;
-                case 1:
-                    if (y < rows - 1) {
-                        neighbor = grid[x][y + 1];
-                        current.bottomWall = false;
-                        neighbor.topWall = false;
-                    }
-                    break;
-                case 2:
-                    if (x > 0) {
-                        neighbor = grid[x - 1][y];
-                        current.leftWall = false;
-                        neighbor.rightWall = false;
-                    }
-                    break;
-                case 3:
-                    if (y > 0) {
-                        neighbor = grid[x][y - 1];
-                        current.topWall = false;
-                        neighbor.bottomWall = false;
-                    }
-                    break;
-            }
-        }
+    // Mazes up to one tile are carved on a single worker; bigger ones use every core
+    private MazeGrid generateMazeWithExtraPaths(int extraPassages) {
+        seed = new SplittableRandom().nextLong();
+        return generator.generate(cols, rows, extraPassages, seed);
     }
 }
@@ -0,0 +1,105 @@
+package com.example.mazesolver;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+// Solve instrumentation. measure() wraps one solve in a SolveMetrics record that
+// the solver fills in through current(); the finished record updates the named
+// counters and histograms and goes to every installed sink. With no sinks the
+// layer is off: measure() just calls the solve, current() returns null, and the
+// solvers skip their reporting, so a solve pays one volatile read.
+public final class Metrics {
+
+    private static final List<MetricsSink> SINKS = new CopyOnWriteArrayList<>();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<SolveMetrics> CURRENT = new ThreadLocal<>();
+
+    private static volatile boolean enabled;
+    private static volatile ResourceMeter meter = ResourceMeter.NONE;
+
+    private Metrics() {
+    }
+
+    public static synchronized void addSink(MetricsSink sink) {
+        SINKS.add(sink);
+        enabled = true;
+    }
+
+    public static synchronized void removeSink(MetricsSink sink) {
+        SINKS.remove(sink);
+        enabled = !SINKS.isEmpty();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setMeter(ResourceMeter resourceMeter) {
+        meter = resourceMeter;
+    }
+
+    // Run a solve, measured when any sink is installed. A solve that throws is not recorded.
+    public static SolveResult measure(String solver, Callable<SolveResult> solve) throws Exception {
+        if (!enabled) return solve.call();
+        SolveMetrics metrics = new SolveMetrics(solver, meter);
+        SolveMetrics outer = CURRENT.get();
+        CURRENT.set(metrics);
+        SolveResult result;
+        try {
+            result = solve.call();
+        } finally {
+            CURRENT.set(outer);
+        }
+        metrics.finish(result);
+        record(metrics);
+        return result;
+    }
+
+    // The record of the solve running on this thread, or null when nothing is measured
+    public static SolveMetrics current() {
+        return enabled ? CURRENT.get() : null;
+    }
+
+    public static LongAdder counter(String name) {
+        return COUNTERS.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    public static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    // Names of every counter and histogram recorded so far, sorted
+    public static SortedSet<String> counterNames() {
+        return new TreeSet<>(COUNTERS.keySet());
+    }
+
+    public static SortedSet<String> histogramNames() {
+        return new TreeSet<>(HISTOGRAMS.keySet());
+    }
+
+    private static void record(SolveMetrics metrics) {
+        String solver = metrics.solver;
+        counter("solves").increment();
+        counter(solver + ".solves").increment();
+        if (metrics.expanded > 0) counter("expanded").add(metrics.expanded);
+        if (metrics.queuePops > 0) counter("queue.pops").add(metrics.queuePops);
+        histogram(solver + ".wall_us").record(metrics.totalWallNanos / 1000);
+        if (metrics.totalCpuNanos >= 0) histogram(solver + ".cpu_us").record(metrics.totalCpuNanos / 1000);
+        histogram(solver + ".expanded").record(metrics.expanded);
+        histogram(solver + ".peak_frontier").record(metrics.peakFrontier);
+        if (metrics.allocatedBytes >= 0) histogram(solver + ".allocated_bytes").record(metrics.allocatedBytes);
+
+        // A broken sink must not fail the solve that fed it
+        for (MetricsSink sink : SINKS) {
+            try {
+                sink.onSolve(metrics);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.mazesolver;
+
+// Receives every measured solve, on the thread that ran it
+public interface MetricsSink {
+
+    void onSolve(SolveMetrics metrics);
+}
@@ -0,0 +1,65 @@
+package com.example.mazesolver;
+
+// The neighbour step every solver shares: for each of the 16 open-side masks, the
+// id offsets of the cells a walker can move to, in the order left, right, up, down.
+// The table depends only on the maze width, so a search turns a cell's wall mask
+// into its neighbours with two array reads and no branches per side:
+//
+//   int open = maze.openSides(current);
+//   for (int k = 0, end = kernel.count(open); k < end; k++) {
+//       int next = current + kernel.offset(open, k);
+//   }
+public final class NeighborKernel {
+
+    private static final int[] ORDER = {MazeGrid.LEFT, MazeGrid.RIGHT, MazeGrid.TOP, MazeGrid.BOTTOM};
+    private static final byte[] COUNT = new byte[16];
+
+    static {
+        for (int mask = 0; mask < 16; mask++) {
+            COUNT[mask] = (byte) Integer.bitCount(mask);
+        }
+    }
+
+    private final int cols;
+    // offsets[mask * 4 + k] is the k-th open neighbour's offset for that mask
+    private final int[] offsets = new int[64];
+
+    public NeighborKernel(int cols) {
+        this.cols = cols;
+        for (int mask = 0; mask < 16; mask++) {
+            int k = 0;
+            for (int side : ORDER) {
+                if ((mask & side) != 0) offsets[mask * 4 + k++] = step(side, cols);
+            }
+        }
+    }
+
+    public static NeighborKernel of(Maze maze) {
+        return new NeighborKernel(maze.cols());
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int count(int open) {
+        return COUNT[open];
+    }
+
+    public int offset(int open, int k) {
+        return offsets[(open << 2) + k];
+    }
+
+    private static int step(int side, int cols) {
+        switch (side) {
+            case MazeGrid.LEFT:
+                return -1;
+            case MazeGrid.RIGHT:
+                return 1;
+            case MazeGrid.TOP:
+                return -cols;
+            default:
+                return cols;
+        }
+    }
+}
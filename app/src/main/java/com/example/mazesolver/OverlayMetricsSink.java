@@ -0,0 +1,17 @@
+package com.example.mazesolver;
+
+// Shows each measured solve on a MazeView; solves finish on worker threads, so the
+// record is handed over through the view's UI queue
+public class OverlayMetricsSink implements MetricsSink {
+
+    private final MazeView view;
+
+    public OverlayMetricsSink(MazeView view) {
+        this.view = view;
+    }
+
+    @Override
+    public void onSolve(SolveMetrics metrics) {
+        view.post(() -> view.showMetrics(metrics));
+    }
+}
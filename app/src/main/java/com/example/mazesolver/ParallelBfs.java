@@ -0,0 +1,170 @@
+package com.example.mazesolver;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Level-synchronous breadth-first search for very large mazes. Each level's
+// frontier is cut into chunks that are expanded in parallel on a ForkJoinPool;
+// a worker claims a cell by setting its visited bit with a CAS, so every cell
+// gets exactly one parent, one level deeper than that parent. Chunks collect the
+// cells they claimed in their own buffers, which are concatenated into the next
+// frontier once the level is done. Distances are therefore exactly BFS distances.
+public class ParallelBfs {
+
+    // Frontiers smaller than this are expanded on the calling thread
+    private static final int CHUNK = 2048;
+
+    private final ForkJoinPool pool;
+
+    private AtomicLongArray visited = new AtomicLongArray(0);
+    private int[] parent = new int[0];
+    private int[] dist = new int[0];
+    private int[] frontier = new int[0];
+    private int[] next = new int[0];
+    private int[][] chunkOut = new int[0][];
+    private int[] chunkCount = new int[0];
+    private int visitedCount;
+
+    public ParallelBfs() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelBfs(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Visit every cell reachable from start
+    public void run(Maze maze, int start) {
+        run(maze, start, -1);
+    }
+
+    // Search level by level until the level holding goal is complete, or the reachable
+    // area is exhausted. Returns true when goal was reached.
+    public boolean run(Maze maze, int start, int goal) {
+        int n = maze.size();
+        NeighborKernel kernel = NeighborKernel.of(maze);
+        ensureCapacity(n);
+        int words = (n + 63) >>> 6;
+        for (int i = 0; i < words; i++) {
+            visited.lazySet(i, 0L);
+        }
+
+        visited.set(start >>> 6, 1L << start);
+        parent[start] = -1;
+        dist[start] = 0;
+        frontier[0] = start;
+        int size = 1;
+        visitedCount = 1;
+
+        while (size > 0) {
+            if (goal >= 0 && isVisited(goal)) return true;
+            SolverExecutor.throwIfCancelled();
+
+            int chunks = (size + CHUNK - 1) / CHUNK;
+            ensureChunks(chunks);
+            if (chunks == 1) {
+                expandChunk(maze, kernel, 0, size);
+            } else {
+                int frontierSize = size;
+                pool.invoke(new ParallelMazeGenerator.ForEach(0, chunks, c -> expandChunk(maze, kernel, c, frontierSize)));
+            }
+
+            size = 0;
+            for (int c = 0; c < chunks; c++) {
+                System.arraycopy(chunkOut[c], 0, next, size, chunkCount[c]);
+                size += chunkCount[c];
+            }
+            visitedCount += size;
+
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+        }
+        return goal >= 0 && isVisited(goal);
+    }
+
+    public boolean isVisited(int id) {
+        return (visited.get(id >>> 6) & (1L << id)) != 0;
+    }
+
+    // Parent of a visited cell in the BFS tree, -1 for the start cell
+    public int parent(int id) {
+        return parent[id];
+    }
+
+    // Number of steps from the start to a visited cell
+    public int distance(int id) {
+        return dist[id];
+    }
+
+    public int visitedCount() {
+        return visitedCount;
+    }
+
+    // Copy of the visited bits for the last run, safe to keep after the next run
+    public long[] visitedSnapshot(int cells) {
+        long[] bits = new long[(cells + 63) >>> 6];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = visited.get(i);
+        }
+        return bits;
+    }
+
+    private void expandChunk(Maze maze, NeighborKernel kernel, int chunk, int frontierSize) {
+        int from = chunk * CHUNK;
+        int to = Math.min(frontierSize, from + CHUNK);
+        int[] out = chunkOut[chunk];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int current = frontier[i];
+            int open = maze.openSides(current);
+            int d = dist[current] + 1;
+            for (int k = 0, end = kernel.count(open); k < end; k++) {
+                count = claim(current + kernel.offset(open, k), current, d, out, count);
+            }
+        }
+        chunkCount[chunk] = count;
+    }
+
+    // Set the cell's visited bit unless another worker got there first; the winner
+    // owns the cell's parent and distance entries
+    private int claim(int cell, int from, int d, int[] out, int count) {
+        int word = cell >>> 6;
+        long bit = 1L << cell;
+        long old = visited.get(word);
+        while ((old & bit) == 0) {
+            if (visited.compareAndSet(word, old, old | bit)) {
+                parent[cell] = from;
+                dist[cell] = d;
+                out[count] = cell;
+                return count + 1;
+            }
+            old = visited.get(word);
+        }
+        return count;
+    }
+
+    private void ensureCapacity(int n) {
+        int words = (n + 63) >>> 6;
+        if (visited.length() < words) visited = new AtomicLongArray(words);
+        if (parent.length < n) {
+            parent = new int[n];
+            dist = new int[n];
+            frontier = new int[n];
+            next = new int[n];
+        }
+    }
+
+    // Every cell has at most four neighbours, so a chunk never claims more than 4 * CHUNK
+    private void ensureChunks(int chunks) {
+        if (chunkOut.length < chunks) {
+            int old = chunkOut.length;
+            chunkOut = Arrays.copyOf(chunkOut, Math.max(chunks, old * 2));
+            chunkCount = new int[chunkOut.length];
+            for (int i = old; i < chunkOut.length; i++) {
+                chunkOut[i] = new int[4 * CHUNK];
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.mazesolver;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+// Generates large perfect mazes on a ForkJoinPool. The grid is cut into square
+// tiles; every tile is carved as its own perfect maze in parallel, then the tiles
+// are joined by a spanning tree over the tile grid, opening exactly one wall per
+// tree edge. A tree of trees is still a tree, so the result is a perfect maze.
+public class ParallelMazeGenerator {
+
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    private final ForkJoinPool pool;
+    private final int tileSize;
+
+    public ParallelMazeGenerator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+    }
+
+    public ParallelMazeGenerator(ForkJoinPool pool, int tileSize) {
+        if (tileSize <= 0) throw new IllegalArgumentException("Tile size must be positive: " + tileSize);
+        this.pool = pool;
+        this.tileSize = tileSize;
+    }
+
+    public MazeGrid generate(int cols, int rows, int extraPassages, long seed) {
+        MazeGrid grid = new MazeGrid(cols, rows);
+        int tilesX = (cols + tileSize - 1) / tileSize;
+        int tilesY = (rows + tileSize - 1) / tileSize;
+
+        // Split the random streams up front so the maze only depends on the seed,
+        // never on which worker carved which tile
+        SplittableRandom rand = new SplittableRandom(seed);
+        SplittableRandom[] tileRandoms = new SplittableRandom[tilesX * tilesY];
+        for (int i = 0; i < tileRandoms.length; i++) {
+            tileRandoms[i] = rand.split();
+        }
+
+        MazeGrid[] tiles = new MazeGrid[tilesX * tilesY];
+        pool.invoke(new ForEach(0, tiles.length, t -> {
+            int width = Math.min(tileSize, cols - (t % tilesX) * tileSize);
+            int height = Math.min(tileSize, rows - (t / tilesX) * tileSize);
+            MazeGrid tile = new MazeGrid(width, height);
+            SplittableRandom tileRand = tileRandoms[t];
+            MazeGenerator.carveBacktracking(tile, tileRand.nextInt(tile.size()), tileRand);
+            tiles[t] = tile;
+        }));
+
+        // Copy tiles into the grid in row bands that start on a wall-word boundary
+        // (32 cells), so no two workers ever write the same long
+        int alignRows = 32 / gcd(cols, 32);
+        int bandRows = Math.max(alignRows, roundUp(rows / (pool.getParallelism() * 4 + 1), alignRows));
+        int bands = (rows + bandRows - 1) / bandRows;
+        pool.invoke(new ForEach(0, bands, band -> {
+            int y1 = Math.min(rows, (band + 1) * bandRows);
+            for (int y = band * bandRows; y < y1; y++) {
+                copyRow(grid, tiles, tilesX, y);
+            }
+        }));
+
+        stitch(grid, tilesX, tilesY, rand);
+        MazeGenerator.addExtraPassages(grid, extraPassages, rand);
+        return grid;
+    }
+
+    private void copyRow(MazeGrid grid, MazeGrid[] tiles, int tilesX, int y) {
+        int ty = y / tileSize;
+        int ly = y - ty * tileSize;
+        int id = grid.id(0, y);
+        for (int tx = 0; tx < tilesX; tx++) {
+            MazeGrid tile = tiles[ty * tilesX + tx];
+            int local = ly * tile.cols();
+            for (int lx = 0; lx < tile.cols(); lx++, local++, id++) {
+                if (!tile.hasWall(local, MazeGrid.RIGHT)) grid.carve(id, MazeGrid.RIGHT);
+                if (!tile.hasWall(local, MazeGrid.BOTTOM)) grid.carve(id, MazeGrid.BOTTOM);
+            }
+        }
+    }
+
+    // Carve a perfect maze over the tiles themselves and open one random wall on
+    // the border of every pair of tiles it connects
+    private void stitch(MazeGrid grid, int tilesX, int tilesY, SplittableRandom rand) {
+        MazeGrid tileTree = new MazeGrid(tilesX, tilesY);
+        MazeGenerator.carveBacktracking(tileTree, 0, rand);
+
+        for (int t = 0; t < tileTree.size(); t++) {
+            int x0 = (t % tilesX) * tileSize;
+            int y0 = (t / tilesX) * tileSize;
+            int x1 = Math.min(grid.cols(), x0 + tileSize);
+            int y1 = Math.min(grid.rows(), y0 + tileSize);
+            if (!tileTree.hasWall(t, MazeGrid.RIGHT)) {
+                int y = y0 + rand.nextInt(y1 - y0);
+                grid.carve(grid.id(x1 - 1, y), MazeGrid.RIGHT);
+            }
+            if (!tileTree.hasWall(t, MazeGrid.BOTTOM)) {
+                int x = x0 + rand.nextInt(x1 - x0);
+                grid.carve(grid.id(x, y1 - 1), MazeGrid.BOTTOM);
+            }
+        }
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static int roundUp(int value, int multiple) {
+        return (value + multiple - 1) / multiple * multiple;
+    }
+
+    // Runs body for every index in [from, to), halving the range until single indexes
+    static final class ForEach extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        // Tasks are never serialized; the lambda bodies are not Serializable anyway
+        private final transient IntConsumer body;
+
+        ForEach(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+            } else if (to > from) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ForEach(from, mid, body), new ForEach(mid, to, body));
+            }
+        }
+    }
+}
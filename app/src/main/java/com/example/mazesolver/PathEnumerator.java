@@ -0,0 +1,112 @@
+package com.example.mazesolver;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Lazily walks every simple path from start to goal with an explicit stack, so
+// deep mazes cannot overflow the thread stack and only one path is held at a time.
+// Stops after maxPaths paths and never follows a path longer than maxLength cells.
+public class PathEnumerator implements Iterator<List<MazeView.Cell>> {
+
+    private final Maze maze;
+    private final int goal;
+    private final int goalX, goalY;
+    private final int maxLength;
+    private int remaining;
+
+    private final int[] stack;
+    private final int[] sidesLeft;
+    private final long[] onPath;
+    private int depth;
+    private int steps;
+
+    private List<MazeView.Cell> next;
+
+    public PathEnumerator(Maze maze, int start, int goal, int maxPaths, int maxLength) {
+        this.maze = maze;
+        this.goal = goal;
+        this.goalX = maze.x(goal);
+        this.goalY = maze.y(goal);
+        this.maxLength = Math.min(maxLength, maze.size());
+        this.remaining = maxPaths;
+        this.stack = new int[this.maxLength];
+        this.sidesLeft = new int[this.maxLength];
+        this.onPath = new long[(maze.size() + 63) >>> 6];
+
+        if (this.maxLength > 0 && maxPaths > 0) {
+            if (start == goal) {
+                next = toCells(new int[]{start}, 1);
+                depth = 0;
+            } else {
+                push(start);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && remaining > 0) next = advance();
+        return next != null;
+    }
+
+    @Override
+    public List<MazeView.Cell> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        List<MazeView.Cell> path = next;
+        next = null;
+        remaining--;
+        return path;
+    }
+
+    private List<MazeView.Cell> advance() {
+        while (depth > 0) {
+            if ((++steps & 4095) == 0) SolverExecutor.throwIfCancelled();
+            int top = depth - 1;
+            int sides = sidesLeft[top];
+            if (sides == 0) {
+                pop();
+                continue;
+            }
+            int side = Integer.lowestOneBit(sides);
+            sidesLeft[top] = sides & ~side;
+
+            int cell = maze.neighbor(stack[top], side);
+            if (isOnPath(cell)) continue;
+            // Even a straight run to the goal would exceed the length cap
+            if (depth + 1 + Math.abs(maze.x(cell) - goalX) + Math.abs(maze.y(cell) - goalY) > maxLength) continue;
+
+            if (cell == goal) {
+                stack[depth] = goal;
+                return toCells(stack, depth + 1);
+            }
+            push(cell);
+        }
+        return null;
+    }
+
+    private void push(int cell) {
+        stack[depth] = cell;
+        sidesLeft[depth] = maze.openSides(cell);
+        onPath[cell >>> 6] |= 1L << cell;
+        depth++;
+    }
+
+    private void pop() {
+        int cell = stack[--depth];
+        onPath[cell >>> 6] &= ~(1L << cell);
+    }
+
+    private boolean isOnPath(int cell) {
+        return (onPath[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private List<MazeView.Cell> toCells(int[] ids, int length) {
+        List<MazeView.Cell> cells = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            cells.add(maze.cell(ids[i]));
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.mazesolver;
+
+// Per-thread CPU time and allocation readings for SolveMetrics. They come from
+// different APIs on Android and on the JVM, so the platform installs one with
+// Metrics.setMeter(); the default only has the wall clock.
+public interface ResourceMeter {
+
+    ResourceMeter NONE = new ResourceMeter() {
+        @Override
+        public long threadCpuNanos() {
+            return -1;
+        }
+
+        @Override
+        public long allocatedBytes() {
+            return -1;
+        }
+    };
+
+    // CPU time used by the calling thread so far, or -1 when unknown
+    long threadCpuNanos();
+
+    // Bytes allocated by the calling thread so far, or -1 when the platform cannot
+    // tell one thread's allocations from another's
+    long allocatedBytes();
+}
@@ -0,0 +1,37 @@
+package com.example.mazesolver;
+
+import java.util.List;
+
+// Collects events inside a solver loop and hands them to the listener in fixed-size
+// batches, so the per-cell cost is an array store
+final class SolveEventBatch {
+
+    private static final int BATCH_SIZE = 256;
+
+    private final SolveListener listener;
+    private final int[] events = new int[BATCH_SIZE];
+    private int count;
+
+    SolveEventBatch(SolveListener listener) {
+        this.listener = listener;
+    }
+
+    void add(int type, int cell) {
+        events[count++] = SolveListener.event(type, cell);
+        if (count == BATCH_SIZE) flush();
+    }
+
+    // Emit the path cells from start to goal
+    void addPath(Maze maze, List<MazeView.Cell> path) {
+        for (MazeView.Cell cell : path) {
+            add(SolveListener.PATH, maze.id(cell.x, cell.y));
+        }
+    }
+
+    void flush() {
+        if (count > 0) {
+            listener.onEvents(events, count);
+            count = 0;
+        }
+    }
+}
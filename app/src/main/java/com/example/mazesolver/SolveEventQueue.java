@@ -0,0 +1,82 @@
+package com.example.mazesolver;
+
+import java.util.concurrent.CancellationException;
+
+// Bounded hand-off from a solver thread to the UI. The solver blocks while the
+// ring is full, so it never runs further ahead of the animation than the ring's
+// capacity and no full trace is kept. FRONTIER events are the exception: with the
+// ring full they are dropped rather than waited for, since the cell shows up again
+// once it is expanded. The UI drains the ring without blocking, a frame's worth at
+// a time, and can skip() the rest of the stream to let the solver run free.
+public class SolveEventQueue implements SolveListener {
+
+    private final int[] ring;
+    private int head, tail;
+    private boolean closed, abandoned, skipped;
+
+    // Capacity is rounded up to a power of two
+    public SolveEventQueue(int capacity) {
+        ring = new int[Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1];
+    }
+
+    @Override
+    public synchronized void onEvents(int[] events, int count) {
+        int mask = ring.length - 1;
+        for (int i = 0; i < count; i++) {
+            if (skipped) return;
+            if (tail - head == ring.length) {
+                if (SolveListener.type(events[i]) == SolveListener.FRONTIER) continue;
+                long waitStart = System.nanoTime();
+                while (tail - head == ring.length && !skipped) {
+                    if (abandoned) throw new CancellationException("Nobody is drawing this solve");
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("Solve was superseded");
+                    }
+                }
+                // Waiting on the animation is not solving; keep it out of the solve's times
+                SolveMetrics metrics = Metrics.current();
+                if (metrics != null) metrics.addBlocked(System.nanoTime() - waitStart);
+                if (skipped) return;
+            }
+            if (abandoned) throw new CancellationException("Nobody is drawing this solve");
+            ring[tail++ & mask] = events[i];
+        }
+    }
+
+    // Producer side: no more events will come
+    public synchronized void close() {
+        closed = true;
+    }
+
+    // Consumer side: stop reading; a producer waiting for room gives up
+    public synchronized void abandon() {
+        abandoned = true;
+        notifyAll();
+    }
+
+    // Consumer side: stop drawing but let the solve finish; every later event is
+    // dropped without waiting
+    public synchronized void skip() {
+        skipped = true;
+        notifyAll();
+    }
+
+    // Copy up to max events into out without waiting; returns how many were copied
+    public synchronized int drain(int[] out, int max) {
+        int n = Math.min(Math.min(max, out.length), tail - head);
+        int mask = ring.length - 1;
+        for (int i = 0; i < n; i++) {
+            out[i] = ring[head++ & mask];
+        }
+        if (n > 0) notifyAll();
+        return n;
+    }
+
+    // True once the producer closed the stream and everything has been drained
+    public synchronized boolean isFinished() {
+        return closed && head == tail;
+    }
+}
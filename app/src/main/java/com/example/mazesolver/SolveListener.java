@@ -0,0 +1,27 @@
+package com.example.mazesolver;
+
+// Receives a solver's progress as batches of packed ints: the event type in the
+// top two bits and the cell id below. Batches are delivered on the solving thread
+// and the array is reused as soon as onEvents returns.
+public interface SolveListener {
+
+    int EXPANDED = 0; // cell taken off the open set / queue
+    int FRONTIER = 1; // cell added to the open set / queue
+    int PATH = 2;     // next cell of the final path, start to goal
+
+    int CELL_MASK = (1 << 30) - 1;
+
+    void onEvents(int[] events, int count);
+
+    static int event(int type, int cell) {
+        return (type << 30) | cell;
+    }
+
+    static int type(int event) {
+        return event >>> 30;
+    }
+
+    static int cell(int event) {
+        return event & CELL_MASK;
+    }
+}
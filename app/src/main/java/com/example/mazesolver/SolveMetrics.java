@@ -0,0 +1,148 @@
+package com.example.mazesolver;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+// What one solve cost. Metrics.measure() creates the record, solvers fill in the
+// counters they know about and mark where their phases end, and the finished
+// record goes to every installed MetricsSink. Fields a solver does not report
+// stay -1; times and bytes are -1 when the ResourceMeter cannot tell.
+public class SolveMetrics {
+
+    // Buffer and queue preparation, the search loop, then path building and events
+    public static final int SETUP = 0;
+    public static final int SEARCH = 1;
+    public static final int PATH = 2;
+    public static final String[] PHASES = {"setup", "search", "path"};
+
+    public final String solver;
+    public final long startedAtMillis = System.currentTimeMillis();
+    public final long[] wallNanos = new long[PHASES.length];
+    public final long[] cpuNanos = new long[PHASES.length];
+    public long totalWallNanos;
+    // Time spent waiting for a full SolveEventQueue to drain; it is left out of the
+    // wall times above, so they measure the solve rather than the animation
+    public long blockedNanos;
+    // Per-maze work a solver caches between solves (landmark tables), also left out
+    // of the phases and totals; 0 when the solve reused what it had
+    public long preprocessWallNanos;
+    public long preprocessCpuNanos;
+    public long preprocessAllocatedBytes;
+    public long totalCpuNanos = -1;
+    public long allocatedBytes = -1;
+
+    public long expanded = -1;
+    public long queuePushes = -1;
+    public long queuePops = -1;
+    public long queueUpdates = -1;
+    public long peakFrontier = -1;
+    public int pathLength;
+
+    private final ResourceMeter meter;
+    private final long startWall, startCpu, startAllocated;
+    private long markWall, markCpu, blockedSinceMark;
+    // Allocation is only read around preprocessing, not at every phase mark
+    private long markAllocated;
+
+    SolveMetrics(String solver, ResourceMeter meter) {
+        this.solver = solver;
+        this.meter = meter;
+        startWall = markWall = System.nanoTime();
+        startCpu = markCpu = meter.threadCpuNanos();
+        startAllocated = markAllocated = meter.allocatedBytes();
+        if (startCpu < 0) Arrays.fill(cpuNanos, -1);
+    }
+
+    // Charge the time since the previous mark (or the start) to the phase
+    public void mark(int phase) {
+        long wall = System.nanoTime(), cpu = meter.threadCpuNanos();
+        wallNanos[phase] += wall - markWall - blockedSinceMark;
+        blockedSinceMark = 0;
+        if (cpu >= 0 && markCpu >= 0) cpuNanos[phase] += cpu - markCpu;
+        markWall = wall;
+        markCpu = cpu;
+    }
+
+    // Charge the time since the previous mark (or the start) to preprocessing
+    public void markPreprocess() {
+        long wall = System.nanoTime(), cpu = meter.threadCpuNanos(), allocated = meter.allocatedBytes();
+        preprocessWallNanos += wall - markWall - blockedSinceMark;
+        blockedSinceMark = 0;
+        if (cpu >= 0 && markCpu >= 0) preprocessCpuNanos += cpu - markCpu;
+        if (allocated >= 0 && markAllocated >= 0) preprocessAllocatedBytes += allocated - markAllocated;
+        markWall = wall;
+        markCpu = cpu;
+    }
+
+    public void addBlocked(long nanos) {
+        blockedNanos += nanos;
+        blockedSinceMark += nanos;
+    }
+
+    // Add a priority queue's operation counts. Solvers with two queues call this for
+    // each; the peaks add up to a bound on the combined frontier.
+    public void addQueue(long pushes, long pops, long updates, long peak) {
+        queuePushes = Math.max(queuePushes, 0) + pushes;
+        queuePops = Math.max(queuePops, 0) + pops;
+        queueUpdates = Math.max(queueUpdates, 0) + updates;
+        peakFrontier = Math.max(peakFrontier, 0) + peak;
+    }
+
+    void finish(SolveResult result) {
+        totalWallNanos = System.nanoTime() - startWall - blockedNanos - preprocessWallNanos;
+        long cpu = meter.threadCpuNanos();
+        if (cpu >= 0 && startCpu >= 0) totalCpuNanos = cpu - startCpu - preprocessCpuNanos;
+        long allocated = meter.allocatedBytes();
+        if (allocated >= 0 && startAllocated >= 0) allocatedBytes = allocated - startAllocated - preprocessAllocatedBytes;
+        pathLength = result.path.size();
+        if (expanded < 0) expanded = result.visited.size();
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"solver\":\"");
+        for (int i = 0; i < solver.length(); i++) {
+            char c = solver.charAt(i);
+            if (c == '"' || c == '\\') json.append('\\');
+            if (c < 0x20) {
+                json.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append("\",\"startedAtMillis\":").append(startedAtMillis)
+                .append(",\"expanded\":").append(expanded)
+                .append(",\"queuePushes\":").append(queuePushes)
+                .append(",\"queuePops\":").append(queuePops)
+                .append(",\"queueUpdates\":").append(queueUpdates)
+                .append(",\"peakFrontier\":").append(peakFrontier)
+                .append(",\"pathLength\":").append(pathLength)
+                .append(",\"allocatedBytes\":").append(allocatedBytes)
+                .append(",\"blockedNanos\":").append(blockedNanos)
+                .append(",\"preprocess\":{\"wallNanos\":").append(preprocessWallNanos)
+                .append(",\"cpuNanos\":").append(preprocessCpuNanos)
+                .append(",\"allocatedBytes\":").append(preprocessAllocatedBytes).append('}')
+                .append(",\"wallNanos\":");
+        phases(json, wallNanos, totalWallNanos);
+        json.append(",\"cpuNanos\":");
+        phases(json, cpuNanos, totalCpuNanos);
+        return json.append('}').toString();
+    }
+
+    private static void phases(StringBuilder json, long[] nanos, long total) {
+        json.append('{');
+        for (int i = 0; i < PHASES.length; i++) {
+            json.append('"').append(PHASES[i]).append("\":").append(nanos[i]).append(',');
+        }
+        json.append("\"total\":").append(total).append('}');
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s: %.2f ms (setup %.2f, search %.2f, path %.2f), cpu %.2f ms, "
+                        + "expanded %d, queue %d/%d/%d, peak frontier %d, path %d, allocated %d B, blocked %.2f ms, preprocess %.2f ms",
+                solver, totalWallNanos / 1e6, wallNanos[SETUP] / 1e6, wallNanos[SEARCH] / 1e6, wallNanos[PATH] / 1e6,
+                totalCpuNanos / 1e6, expanded, queuePushes, queuePops, queueUpdates, peakFrontier, pathLength,
+                allocatedBytes, blockedNanos / 1e6, preprocessWallNanos / 1e6);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.mazesolver;
+
+import java.util.List;
+import java.util.Set;
+
+// What every solver hands back: the start-goal path (just [start] when the goal
+// cannot be reached) and the cells it expanded on the way.
+public class SolveResult {
+    public final List<MazeView.Cell> path;
+    public final Set<MazeView.Cell> visited;
+
+    public SolveResult(List<MazeView.Cell> path, Set<MazeView.Cell> visited) {
+        this.path = path;
+        this.visited = visited;
+    }
+}
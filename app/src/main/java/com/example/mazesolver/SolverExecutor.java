@@ -0,0 +1,127 @@
+package com.example.mazesolver;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs solves on a small pool of background threads and hands results back on the
+// callback executor (the UI thread in the app). Only the latest submission counts:
+// submitting cancels the one before it, and a result that arrives after being
+// superseded is dropped. submit() and cancel() must be called from the callback
+// thread, which is also where every callback runs.
+public class SolverExecutor {
+
+    public interface Callback<T> {
+        void onResult(T result);
+
+        default void onError(Throwable error) {
+            error.printStackTrace();
+        }
+    }
+
+    private final ThreadPoolExecutor pool;
+    private final Executor callbackExecutor;
+    private Task<?> current;
+
+    public SolverExecutor(Executor callbackExecutor) {
+        this(Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)), callbackExecutor);
+    }
+
+    public SolverExecutor(int threads, Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+        // A cancelled solve can keep its worker until it reaches a cancellation point,
+        // so queued work is bounded and the oldest (already superseded) entry is dropped
+        this.pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads), new SolverThreadFactory(),
+                new ThreadPoolExecutor.DiscardOldestPolicy());
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    public <T> Future<T> submit(Callable<T> work, Callback<T> callback) {
+        cancel();
+        Task<T> task = new Task<>(work, callback);
+        current = task;
+        pool.execute(task);
+        return task;
+    }
+
+    public boolean isBusy() {
+        return current != null;
+    }
+
+    // Interrupt the running solve, if any; its callback will not be called
+    public void cancel() {
+        if (current != null) {
+            current.cancel(true);
+            current = null;
+        }
+    }
+
+    public void shutdown() {
+        cancel();
+        pool.shutdownNow();
+    }
+
+    // Cooperative cancellation point for long loops that may run on a solver thread
+    static void throwIfCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Solve was superseded");
+        }
+    }
+
+    private final class Task<T> extends FutureTask<T> {
+        private final Callback<T> callback;
+
+        Task(Callable<T> work, Callback<T> callback) {
+            super(work);
+            this.callback = callback;
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) return;
+            T result = null;
+            Throwable error = null;
+            try {
+                result = get();
+            } catch (ExecutionException e) {
+                error = e.getCause();
+            } catch (InterruptedException | CancellationException e) {
+                return;
+            }
+            if (error instanceof CancellationException) return;
+
+            T value = result;
+            Throwable failure = error;
+            callbackExecutor.execute(() -> {
+                if (current != this) return;
+                current = null;
+                if (failure == null) {
+                    callback.onResult(value);
+                } else {
+                    callback.onError(failure);
+                }
+            });
+        }
+    }
+
+    private static final class SolverThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "maze-solver-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
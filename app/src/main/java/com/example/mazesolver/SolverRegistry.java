@@ -0,0 +1,125 @@
+package com.example.mazesolver;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// The solvers the app offers, in menu order. New algorithms register here and then
+// show up in the algorithm spinner and in RegisteredSolverBenchmark.
+public final class SolverRegistry {
+
+    private static final int LANDMARK_COUNT = 8;
+
+    private static final List<MazeSolver> SOLVERS = new CopyOnWriteArrayList<>();
+
+    static {
+        register(new Entry("Dijkstra", MazeSolver.OPTIMAL | MazeSolver.WEIGHTED) {
+            @Override
+            public SolveResult solve(Maze maze, SolveListener listener) {
+                return new DijkstraSolver(maze).solve(listener);
+            }
+        });
+        register(new Entry("A*", MazeSolver.OPTIMAL | MazeSolver.WEIGHTED) {
+            @Override
+            public SolveResult solve(Maze maze, SolveListener listener) {
+                return new AStarSolver(maze).solve(listener);
+            }
+        });
+        register(new Entry("A* (landmarks)", MazeSolver.OPTIMAL | MazeSolver.WEIGHTED) {
+            // Landmark distances for the maze they were built on, rebuilt on the
+            // solving thread when a different or edited maze comes in. Held softly:
+            // on the largest mazes the table is tens of MB and may be reclaimed.
+            private volatile SoftReference<LandmarkTable> landmarks = new SoftReference<>(null);
+
+            @Override
+            public SolveResult solve(Maze maze, SolveListener listener) {
+                LandmarkTable table = landmarks.get();
+                if (table == null || !table.isCurrent(maze)) {
+                    table = null;
+                    landmarks.clear();
+                    int count = LandmarkTable.affordableCount(maze, LANDMARK_COUNT);
+                    // Without room for even one landmark this is plain A*
+                    if (count > 0) {
+                        table = LandmarkTable.build(maze, count);
+                        landmarks = new SoftReference<>(table);
+                    }
+                    SolveMetrics metrics = Metrics.current();
+                    if (metrics != null) metrics.markPreprocess();
+                }
+                return new AStarSolver(maze, table).solve(listener);
+            }
+        });
+        register(new Entry("Bidirectional BFS", MazeSolver.OPTIMAL) {
+            @Override
+            public SolveResult solve(Maze maze, SolveListener listener) {
+                return new BidirectionalBfsSolver(maze).solve(listener);
+            }
+        });
+        register(new Entry("Bidirectional A*", MazeSolver.OPTIMAL) {
+            @Override
+            public SolveResult solve(Maze maze, SolveListener listener) {
+                return new BidirectionalAStarSolver(maze).solve(listener);
+            }
+        });
+    }
+
+    private SolverRegistry() {
+    }
+
+    public static synchronized void register(MazeSolver solver) {
+        for (MazeSolver existing : SOLVERS) {
+            if (existing.name().equals(solver.name())) {
+                throw new IllegalArgumentException("Solver already registered: " + solver.name());
+            }
+        }
+        SOLVERS.add(solver);
+    }
+
+    public static List<MazeSolver> all() {
+        return Collections.unmodifiableList(new ArrayList<>(SOLVERS));
+    }
+
+    public static String[] names() {
+        List<MazeSolver> solvers = all();
+        String[] names = new String[solvers.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = solvers.get(i).name();
+        }
+        return names;
+    }
+
+    public static MazeSolver get(String name) {
+        for (MazeSolver solver : SOLVERS) {
+            if (solver.name().equals(name)) return solver;
+        }
+        throw new IllegalArgumentException("Unknown solver: " + name);
+    }
+
+    // Name and capabilities for the built-in adapters
+    private abstract static class Entry implements MazeSolver {
+        private final String name;
+        private final int capabilities;
+
+        Entry(String name, int capabilities) {
+            this.name = name;
+            this.capabilities = capabilities;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public int capabilities() {
+            return capabilities;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.mazesolver;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Terrain types as cell costs, and a seeded painter that lays them over a maze:
+// round patches of mud and water plus scattered doors. The costs are small so
+// DialSolver needs only a few buckets.
+public final class Terrain {
+
+    public static final int GROUND = 1;
+    public static final int MUD = 3;
+    public static final int WATER = 6;
+    public static final int DOOR = 12;
+
+    // Roughly one patch per this many cells, and one door per CELLS_PER_DOOR
+    private static final int CELLS_PER_PATCH = 150;
+    private static final int CELLS_PER_DOOR = 200;
+    private static final int MIN_RADIUS = 1;
+    private static final int MAX_RADIUS = 6;
+
+    private Terrain() {
+    }
+
+    // Replace the maze's costs with freshly painted terrain; the same seed paints the same terrain
+    public static void paint(MazeGrid maze, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int cols = maze.cols(), rows = maze.rows();
+        maze.clearCosts();
+
+        int patches = Math.max(1, maze.size() / CELLS_PER_PATCH);
+        for (int p = 0; p < patches; p++) {
+            int cx = random.nextInt(cols), cy = random.nextInt(rows);
+            int r = random.nextInt(MIN_RADIUS, MAX_RADIUS + 1);
+            int cost = random.nextInt(3) == 0 ? WATER : MUD;
+            for (int y = Math.max(0, cy - r); y <= Math.min(rows - 1, cy + r); y++) {
+                for (int x = Math.max(0, cx - r); x <= Math.min(cols - 1, cx + r); x++) {
+                    int dx = x - cx, dy = y - cy;
+                    if (dx * dx + dy * dy <= r * r) maze.setCost(maze.id(x, y), cost);
+                }
+            }
+        }
+
+        int doors = maze.size() / CELLS_PER_DOOR;
+        for (int d = 0; d < doors; d++) {
+            maze.setCost(random.nextInt(maze.size()), DOOR);
+        }
+    }
+
+    // Sum of the costs of every cell entered along the path
+    public static int pathCost(Maze maze, List<MazeView.Cell> path) {
+        int total = 0;
+        for (int i = 1; i < path.size(); i++) {
+            MazeView.Cell cell = path.get(i);
+            total += maze.cost(maze.id(cell.x, cell.y));
+        }
+        return total;
+    }
+}
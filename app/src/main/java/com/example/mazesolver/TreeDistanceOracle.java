@@ -0,0 +1,191 @@
+package com.example.mazesolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Distances in a perfect maze, where the only route between two cells runs through
+// their lowest common ancestor in the tree rooted at the start: d(u, v) =
+// depth(u) + depth(v) - 2 * depth(lca). The LCA is the shallowest cell of the Euler
+// tour between the first visits of u and v, found with a range-minimum index:
+// a sparse table over 64-entry blocks plus, inside a block, one stack bitmask per
+// position whose lowest set bit at or after l marks the minimum of [l, r].
+// A query costs a handful of array reads; paths walk parent links up to the LCA.
+public class TreeDistanceOracle implements DistanceOracle {
+
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK = 1 << BLOCK_SHIFT;
+
+    private final Maze maze;
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] first;
+    private final int[] euler;
+    private final int[] eulerDepth;
+    private final long[] stackMask;
+    // blockMin[k][b]: Euler index of the minimum over blocks b .. b + 2^k - 1
+    private final int[][] blockMin;
+
+    public TreeDistanceOracle(Maze maze) {
+        this.maze = maze;
+        int n = maze.size();
+        parent = new int[n];
+        depth = new int[n];
+        first = new int[n];
+        euler = new int[2 * n - 1];
+        eulerDepth = new int[2 * n - 1];
+        int length = tour(maze.start());
+        if (length != euler.length) {
+            throw new IllegalArgumentException("Maze is not a spanning tree of its grid");
+        }
+        stackMask = new long[length];
+        buildStackMasks(length);
+        blockMin = buildBlockTable(length);
+    }
+
+    // Every cell reachable from the start and exactly size - 1 open passages
+    public static boolean isTree(Maze maze) {
+        int n = maze.size();
+        long openings = 0;
+        for (int id = 0; id < n; id++) {
+            openings += Integer.bitCount(maze.openSides(id));
+        }
+        if (openings / 2 != n - 1) return false;
+        BfsSearch bfs = new BfsSearch();
+        bfs.run(maze, maze.start(), -1);
+        return bfs.visitedCount() == n;
+    }
+
+    @Override
+    public int distance(int from, int to) {
+        if (from == to) return 0;
+        return depth[from] + depth[to] - 2 * eulerDepth[lcaIndex(from, to)];
+    }
+
+    public int lca(int a, int b) {
+        return a == b ? a : euler[lcaIndex(a, b)];
+    }
+
+    @Override
+    public List<MazeView.Cell> path(int from, int to) {
+        int lca = lca(from, to);
+        List<MazeView.Cell> path = new ArrayList<>(distance(from, to) + 1);
+        for (int current = from; current != lca; current = parent[current]) {
+            path.add(maze.cell(current));
+        }
+        path.add(maze.cell(lca));
+        int mark = path.size();
+        for (int current = to; current != lca; current = parent[current]) {
+            path.add(maze.cell(current));
+        }
+        Collections.reverse(path.subList(mark, path.size()));
+        return path;
+    }
+
+    // Iterative depth-first walk writing the Euler tour; returns its length
+    private int tour(int root) {
+        int n = maze.size();
+        int[] stack = new int[n];
+        byte[] nextSide = new byte[n];
+        int top = 0;
+        int length = 0;
+
+        parent[root] = -1;
+        depth[root] = 0;
+        first[root] = 0;
+        stack[top++] = root;
+        euler[length] = root;
+        eulerDepth[length++] = 0;
+        while (top > 0) {
+            if ((length & 4095) == 0) SolverExecutor.throwIfCancelled();
+            int current = stack[top - 1];
+            int open = maze.openSides(current);
+            int child = -1;
+            while (nextSide[current] < MazeGrid.SIDES.length && child < 0) {
+                int side = MazeGrid.SIDES[nextSide[current]++];
+                if ((open & side) == 0) continue;
+                int next = maze.neighbor(current, side);
+                if (next != parent[current]) child = next;
+            }
+            if (child >= 0) {
+                // A second way into a cell means a loop; let the length check reject it
+                if (length == euler.length || top == n) return -1;
+                parent[child] = current;
+                depth[child] = depth[current] + 1;
+                first[child] = length;
+                stack[top++] = child;
+                euler[length] = child;
+                eulerDepth[length++] = depth[child];
+            } else if (--top > 0) {
+                if (length == euler.length) return -1;
+                euler[length] = stack[top - 1];
+                eulerDepth[length++] = depth[stack[top - 1]];
+            }
+        }
+        return length;
+    }
+
+    // Within each block, bit j of stackMask[i] is set when position j of the block is
+    // still on the increasing stack of minima after position i has been pushed
+    private void buildStackMasks(int length) {
+        long mask = 0;
+        for (int i = 0; i < length; i++) {
+            int offset = i & (BLOCK - 1);
+            if (offset == 0) mask = 0;
+            int base = i - offset;
+            while (mask != 0 && eulerDepth[base + 63 - Long.numberOfLeadingZeros(mask)] >= eulerDepth[i]) {
+                mask &= ~Long.highestOneBit(mask);
+            }
+            mask |= 1L << offset;
+            stackMask[i] = mask;
+        }
+    }
+
+    private int[][] buildBlockTable(int length) {
+        int blocks = (length + BLOCK - 1) >>> BLOCK_SHIFT;
+        int levels = 32 - Integer.numberOfLeadingZeros(blocks);
+        int[][] table = new int[levels][];
+        table[0] = new int[blocks];
+        for (int b = 0; b < blocks; b++) {
+            table[0][b] = inBlock(b << BLOCK_SHIFT, Math.min(length, (b + 1) << BLOCK_SHIFT) - 1);
+        }
+        for (int k = 1; k < levels; k++) {
+            int span = 1 << (k - 1);
+            int[] prev = table[k - 1];
+            int[] level = new int[blocks - (1 << k) + 1];
+            for (int b = 0; b < level.length; b++) {
+                level[b] = minIndex(prev[b], prev[b + span]);
+            }
+            table[k] = level;
+        }
+        return table;
+    }
+
+    private int lcaIndex(int a, int b) {
+        int l = first[a], r = first[b];
+        if (l > r) {
+            int swap = l;
+            l = r;
+            r = swap;
+        }
+        int bl = l >>> BLOCK_SHIFT, br = r >>> BLOCK_SHIFT;
+        if (bl == br) return inBlock(l, r);
+        int best = minIndex(inBlock(l, (bl << BLOCK_SHIFT) + BLOCK - 1), inBlock(br << BLOCK_SHIFT, r));
+        if (br - bl > 1) {
+            int from = bl + 1, to = br - 1;
+            int k = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+            best = minIndex(best, minIndex(blockMin[k][from], blockMin[k][to - (1 << k) + 1]));
+        }
+        return best;
+    }
+
+    // Minimum of [l, r] inside one block: the lowest stack entry at or after l
+    private int inBlock(int l, int r) {
+        long mask = stackMask[r] & (-1L << (l & (BLOCK - 1)));
+        return (r & ~(BLOCK - 1)) + Long.numberOfTrailingZeros(mask);
+    }
+
+    private int minIndex(int a, int b) {
+        return eulerDepth[a] <= eulerDepth[b] ? a : b;
+    }
+}
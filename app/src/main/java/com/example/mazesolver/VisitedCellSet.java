@@ -0,0 +1,61 @@
+package com.example.mazesolver;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Read-only Set<Cell> view over a visited bitset. Cells are only created while
+// iterating, so solvers can hand back large visited areas without boxing them.
+public class VisitedCellSet extends AbstractSet<MazeView.Cell> {
+
+    private final Maze maze;
+    private final long[] bits;
+    private final int size;
+
+    public VisitedCellSet(Maze maze, long[] bits, int size) {
+        this.maze = maze;
+        this.bits = bits;
+        this.size = size;
+    }
+
+    public boolean containsId(int id) {
+        return id >= 0 && id < maze.size() && (bits[id >>> 6] & (1L << id)) != 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof MazeView.Cell)) return false;
+        MazeView.Cell cell = (MazeView.Cell) o;
+        if (cell.x < 0 || cell.y < 0 || cell.x >= maze.cols() || cell.y >= maze.rows()) return false;
+        return containsId(maze.id(cell.x, cell.y));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<MazeView.Cell> iterator() {
+        return new Iterator<MazeView.Cell>() {
+            int word = 0;
+            long pending = bits.length > 0 ? bits[0] : 0L;
+
+            @Override
+            public boolean hasNext() {
+                while (pending == 0 && word < bits.length - 1) {
+                    pending = bits[++word];
+                }
+                return pending != 0;
+            }
+
+            @Override
+            public MazeView.Cell next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int id = (word << 6) + Long.numberOfTrailingZeros(pending);
+                pending &= pending - 1;
+                return maze.cell(id);
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.mazesolver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BidirectionalSolversTest {
+
+    @Test
+    public void findShortestPaths() {
+        for (int t = 0; t < 300; t++) {
+            MazeGrid maze = MazeGenerator.generate(1 + t % 37, 1 + t % 29, t % 60, t);
+            int expected = MazeChecks.shortest(maze, false);
+            String where = "maze " + t;
+            assertEquals(where, expected, MazeChecks.pathCost(maze, new BidirectionalBfsSolver(maze).solve().path, false));
+            assertEquals(where, expected, MazeChecks.pathCost(maze, new BidirectionalAStarSolver(maze).solve().path, false));
+        }
+    }
+
+    @Test
+    public void unreachableGoalGivesJustTheStart() {
+        MazeGrid maze = MazeGenerator.generate(15, 15, 20, 3);
+        int goal = maze.goal();
+        maze.setWall(goal, MazeGrid.TOP, true);
+        maze.setWall(goal, MazeGrid.LEFT, true);
+        assertUnreachable(maze, new BidirectionalBfsSolver(maze).solve());
+        assertUnreachable(maze, new BidirectionalAStarSolver(maze).solve());
+    }
+
+    // The streamed PATH events spell out the same path the result holds
+    @Test
+    public void streamedPathMatchesTheResult() {
+        for (int t = 0; t < 50; t++) {
+            MazeGrid maze = MazeGenerator.generate(5 + t, 7 + t % 9, t, t);
+            List<Integer> streamed = new ArrayList<>();
+            SolveListener listener = (events, count) -> {
+                for (int i = 0; i < count; i++) {
+                    if (SolveListener.type(events[i]) == SolveListener.PATH) streamed.add(SolveListener.cell(events[i]));
+                }
+            };
+            SolveResult bfs = new BidirectionalBfsSolver(maze).solve(listener);
+            assertEquals(ids(maze, bfs.path), streamed);
+            streamed.clear();
+            SolveResult aStar = new BidirectionalAStarSolver(maze).solve(listener);
+            assertEquals(ids(maze, aStar.path), streamed);
+        }
+    }
+
+    private static void assertUnreachable(Maze maze, SolveResult result) {
+        assertEquals(1, result.path.size());
+        assertEquals(maze.start(), maze.id(result.path.get(0).x, result.path.get(0).y));
+        assertTrue(result.visited.size() > 0);
+    }
+
+    private static List<Integer> ids(Maze maze, List<MazeView.Cell> path) {
+        List<Integer> ids = new ArrayList<>();
+        for (MazeView.Cell cell : path) ids.add(maze.id(cell.x, cell.y));
+        return ids;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.mazesolver;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DistanceOracleTest {
+
+    @Test
+    public void treeOracleMatchesBfs() {
+        for (int t = 0; t < 40; t++) {
+            MazeGrid maze = MazeGenerator.generate(1 + t % 29, 1 + t % 17, 0, t);
+            assertTrue(TreeDistanceOracle.isTree(maze));
+            assertQueries(new TreeDistanceOracle(maze), maze, t);
+        }
+    }
+
+    @Test
+    public void landmarkOracleMatchesBfs() {
+        for (int t = 0; t < 40; t++) {
+            MazeGrid maze = MazeGenerator.generate(2 + t % 29, 2 + t % 17, 5 + t * 3, t);
+            LandmarkDistanceOracle oracle = new LandmarkDistanceOracle(LandmarkTable.build(maze, 1 + t % 8));
+            assertQueries(oracle, maze, t);
+        }
+    }
+
+    // Walls across the middle leave cells on each side that cannot reach the other
+    @Test
+    public void disconnectedCellsHaveNoDistance() {
+        MazeGrid maze = MazeGenerator.generate(12, 12, 30, 4);
+        for (int x = 0; x < maze.cols(); x++) {
+            maze.setWall(maze.id(x, 5), MazeGrid.BOTTOM, true);
+        }
+        DistanceOracle oracle = DistanceOracle.build(maze);
+        assertTrue(oracle instanceof LandmarkDistanceOracle);
+        assertQueries(oracle, maze, 0);
+
+        int from = maze.id(3, 2), to = maze.id(3, 9);
+        assertEquals(-1, oracle.distance(from, to));
+        List<MazeView.Cell> path = oracle.path(from, to);
+        assertEquals(1, path.size());
+        assertEquals(from, maze.id(path.get(0).x, path.get(0).y));
+    }
+
+    private static void assertQueries(DistanceOracle oracle, Maze maze, long seed) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        for (int q = 0; q < 50; q++) {
+            int from = rand.nextInt(maze.size()), to = rand.nextInt(maze.size());
+            String where = "maze " + seed + " query " + from + " -> " + to;
+            int expected = MazeChecks.shortest(maze, from, to, false);
+            assertEquals(where, expected, oracle.distance(from, to));
+            if (expected >= 0) {
+                assertEquals(where, expected, MazeChecks.pathCost(maze, oracle.path(from, to), from, to, false));
+            }
+            if (oracle instanceof LandmarkDistanceOracle && expected >= 0) {
+                assertTrue(where, ((LandmarkDistanceOracle) oracle).lowerBound(from, to) <= expected);
+            }
+        }
+    }
+}
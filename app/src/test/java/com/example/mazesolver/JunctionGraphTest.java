@@ -0,0 +1,53 @@
+package com.example.mazesolver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class JunctionGraphTest {
+
+    @Test
+    public void shortestPathsMatchTheCellGraph() {
+        for (int t = 0; t < 200; t++) {
+            MazeGrid maze = MazeGenerator.generate(1 + t % 31, 1 + t % 23, t % 50, t);
+            JunctionGraph graph = JunctionGraph.build(maze);
+            int expected = MazeChecks.shortest(maze, false);
+            assertEquals("maze " + t, expected, MazeChecks.pathCost(maze, graph.shortestPath(false), false));
+            assertEquals("maze " + t, expected, MazeChecks.pathCost(maze, graph.shortestPath(true), false));
+
+            int[] dist = graph.distancesTo(graph.goalNode());
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                int steps = MazeChecks.shortest(maze, graph.nodeCell(node), maze.goal(), false);
+                assertEquals("maze " + t + " node " + node, steps < 0 ? Integer.MAX_VALUE : steps, dist[node]);
+            }
+        }
+    }
+
+    // Enumerating node to node must give exactly the simple paths of the cell walk
+    @Test
+    public void enumeratesTheSamePathsAsTheCellWalk() {
+        for (int t = 0; t < 300; t++) {
+            MazeGrid maze = MazeGenerator.generate(2 + t % 7, 2 + t % 5, t % 12, t);
+            int maxLength = MazeChecks.shortest(maze, false) * 3 / 2 + 1;
+            Set<List<Integer>> cells = ids(maze, new PathEnumerator(maze, maze.start(), maze.goal(), Integer.MAX_VALUE, maxLength));
+            Set<List<Integer>> junctions = ids(maze, new JunctionPathEnumerator(JunctionGraph.build(maze), Integer.MAX_VALUE, maxLength));
+            assertEquals("maze " + t, cells, junctions);
+        }
+    }
+
+    private static Set<List<Integer>> ids(Maze maze, Iterator<List<MazeView.Cell>> paths) {
+        Set<List<Integer>> out = new HashSet<>();
+        while (paths.hasNext()) {
+            List<Integer> ids = new ArrayList<>();
+            for (MazeView.Cell cell : paths.next()) ids.add(maze.id(cell.x, cell.y));
+            out.add(ids);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.mazesolver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KShortestPathsTest {
+
+    private static final int K = 12;
+
+    // Yen's paths must be the K shortest of all simple paths, which PathEnumerator
+    // lists exhaustively on mazes this small
+    @Test
+    public void matchesTheShortestEnumeratedPaths() {
+        for (int t = 0; t < 300; t++) {
+            int cols = 1 + t % 5, rows = 1 + (t / 5) % 5;
+            MazeGrid maze = MazeGenerator.generate(cols, rows, t % 7, t);
+            String where = cols + "x" + rows + " maze " + t;
+
+            List<Integer> all = new ArrayList<>();
+            PathEnumerator enumerator = new PathEnumerator(maze, maze.start(), maze.goal(), Integer.MAX_VALUE, Integer.MAX_VALUE);
+            while (enumerator.hasNext()) all.add(enumerator.next().size());
+            Collections.sort(all);
+
+            List<Integer> yen = new ArrayList<>();
+            Set<List<Integer>> seen = new HashSet<>();
+            KShortestPaths paths = new KShortestPaths(maze, maze.start(), maze.goal(), K, Integer.MAX_VALUE);
+            while (paths.hasNext()) {
+                List<MazeView.Cell> path = paths.next();
+                assertTrue("invalid path on " + where, MazeChecks.pathCost(maze, path, false) >= 0);
+                List<Integer> ids = new ArrayList<>();
+                for (MazeView.Cell cell : path) ids.add(maze.id(cell.x, cell.y));
+                assertTrue("repeated path on " + where, seen.add(ids));
+                assertEquals("path is not simple on " + where, ids.size(), new HashSet<>(ids).size());
+                yen.add(path.size());
+            }
+            assertEquals(where, all.subList(0, Math.min(K, all.size())), yen);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.mazesolver;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LpaStarSolverTest {
+
+    // After every wall or cost edit the repaired path must cost what a fresh search finds
+    @Test
+    public void repairedPathsMatchAFullSearch() {
+        Random rand = new Random(5);
+        for (int t = 0; t < 60; t++) {
+            int size = 4 + t % 25;
+            MazeGrid maze = MazeGenerator.generate(size, size + t % 5, t % 2 == 0 ? 0 : 30, t);
+            if (t % 3 == 0) Terrain.paint(maze, t);
+            LpaStarSolver planner = new LpaStarSolver(maze);
+            planner.solve();
+            for (int edit = 0; edit < 100; edit++) {
+                int id = rand.nextInt(maze.size());
+                int cost;
+                if (edit % 7 == 6) {
+                    cost = planner.setCost(id, 1 + rand.nextInt(9));
+                } else {
+                    cost = planner.setWall(id, MazeGrid.SIDES[rand.nextInt(4)], rand.nextBoolean());
+                }
+                String where = "maze " + t + " edit " + edit;
+                int expected = MazeChecks.shortest(maze, true);
+                assertEquals(where, expected, cost);
+                List<MazeView.Cell> path = planner.path();
+                if (expected >= 0) assertEquals(where, expected, MazeChecks.pathCost(maze, path, true));
+            }
+        }
+    }
+
+    @Test
+    public void solveReportsOnlyTheCellsARepairExpanded() {
+        MazeGrid maze = MazeGenerator.generate(40, 40, 40, 9);
+        LpaStarSolver planner = new LpaStarSolver(maze);
+        int initial = planner.solve().visited.size();
+        // Open the first closed interior wall in the row next to the start
+        int id = maze.id(1, 1);
+        while (!maze.hasWall(id, MazeGrid.RIGHT)) id++;
+        planner.setWall(id, MazeGrid.RIGHT, false);
+        SolveResult repaired = planner.solve();
+        assertEquals(MazeChecks.shortest(maze, true), MazeChecks.pathCost(maze, repaired.path, true));
+        assertTrue(repaired.visited.size() < initial);
+    }
+}
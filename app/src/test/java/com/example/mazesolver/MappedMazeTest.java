@@ -0,0 +1,132 @@
+package com.example.mazesolver;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MappedMazeTest {
+
+    @Test
+    public void mappedMazeMatchesGrid() throws IOException {
+        for (int t = 0; t < 20; t++) {
+            MazeGrid maze = MazeGenerator.generate(1 + t % 53, 1 + t % 31, t * 4, t);
+            File path = write(new MazeFile(maze, t, maze.goal(), 7L * t), false);
+            try (MappedMaze mapped = MappedMaze.open(path)) {
+                String label = "maze " + t;
+                assertEquals(label, maze.cols(), mapped.cols());
+                assertEquals(label, maze.rows(), mapped.rows());
+                assertEquals(label, t, mapped.start());
+                assertEquals(label, maze.goal(), mapped.goal());
+                assertEquals(label, 7L * t, mapped.seed());
+                assertTrue(label, mapped.verify());
+
+                for (int id = 0; id < maze.size(); id++) {
+                    assertEquals(label + " cell " + id, maze.openSides(id), mapped.openSides(id));
+                    assertEquals(label + " cell " + id, maze.openSides(id), mapped.openSides(maze.x(id), maze.y(id)));
+                }
+
+                int w = Math.max(1, maze.cols() / 2), h = Math.max(1, maze.rows() / 2);
+                int x0 = maze.cols() - w, y0 = maze.rows() - h;
+                byte[] expected = new byte[w * h], actual = new byte[w * h];
+                maze.readRegion(x0, y0, w, h, expected);
+                mapped.readRegion(x0, y0, w, h, actual);
+                assertArrayEquals(label, expected, actual);
+
+                assertArrayEquals(label, maze.words(), mapped.load().words());
+            } finally {
+                path.delete();
+            }
+        }
+    }
+
+    // Terrain costs follow the walls in the file; a mapped weighted maze must not
+    // be solved as unit cost
+    @Test
+    public void mappedCostsMatchGrid() throws IOException {
+        for (int t = 0; t < 10; t++) {
+            MazeGrid maze = MazeGenerator.generate(5 + t * 7, 4 + t * 5, t * 6, t);
+            Terrain.paint(maze, t);
+            File path = write(new MazeFile(maze, t), false);
+            try (MappedMaze mapped = MappedMaze.open(path)) {
+                String label = "maze " + t;
+                assertTrue(label, mapped.verify());
+                assertEquals(label, maze.minCost(), mapped.minCost());
+                assertEquals(label, maze.maxCost(), mapped.maxCost());
+                for (int id = 0; id < maze.size(); id++) {
+                    assertEquals(label + " cell " + id, maze.cost(id), mapped.cost(id));
+                }
+                assertArrayEquals(label, maze.costs(), mapped.load().costs());
+
+                DialSolver solver = new DialSolver(mapped);
+                solver.solve();
+                assertEquals(label, MazeChecks.shortest(maze, true), solver.pathCost());
+            } finally {
+                path.delete();
+            }
+        }
+    }
+
+    @Test
+    public void verifyDetectsCorruption() throws IOException {
+        MazeGrid maze = MazeGenerator.generate(40, 30, 0, 3);
+        File path = write(new MazeFile(maze, 0L), false);
+        try {
+            try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+                file.seek(MazeFile.HEADER_SIZE + 5);
+                int b = file.read();
+                file.seek(MazeFile.HEADER_SIZE + 5);
+                file.write(b ^ 0x04);
+            }
+            try (MappedMaze mapped = MappedMaze.open(path)) {
+                assertFalse(mapped.verify());
+            }
+        } finally {
+            path.delete();
+        }
+    }
+
+    @Test
+    public void compressedFilesAreRejected() throws IOException {
+        File path = write(new MazeFile(MazeGenerator.generate(10, 10, 0, 2), 0L), true);
+        try {
+            MappedMaze.open(path).close();
+            fail("Opened a deflated maze file");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("Compressed"));
+        } finally {
+            path.delete();
+        }
+    }
+
+    // A hand-edited goal past the last cell must fail on open, not inside a solver
+    @Test
+    public void outOfRangeGoalIsRejected() throws IOException {
+        MazeGrid maze = MazeGenerator.generate(10, 10, 0, 5);
+        File path = write(new MazeFile(maze, 0, maze.size(), 0L), false);
+        try {
+            MappedMaze.open(path).close();
+            fail("Opened a maze whose goal is outside it");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("goal"));
+        } finally {
+            path.delete();
+        }
+    }
+
+    private static File write(MazeFile file, boolean compress) throws IOException {
+        File path = File.createTempFile("maze", ".maze");
+        try (FileOutputStream out = new FileOutputStream(path)) {
+            file.write(out.getChannel(), compress);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.mazesolver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Independent reference answers for the solver tests: a textbook Dijkstra over
+// Maze.openSides with a java.util.PriorityQueue, and a path checker that walks the
+// returned cells through the maze's own walls.
+final class MazeChecks {
+
+    private MazeChecks() {
+    }
+
+    // Cheapest cost from one cell to another (steps when weighted is false), or -1
+    static int shortest(Maze maze, int from, int to, boolean weighted) {
+        int[] dist = new int[maze.size()];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[from] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[]{0, from});
+        while (!queue.isEmpty()) {
+            long[] top = queue.poll();
+            int u = (int) top[1];
+            if (top[0] > dist[u]) continue;
+            if (u == to) return dist[u];
+            for (int side : MazeGrid.SIDES) {
+                if (maze.hasWall(u, side)) continue;
+                int v = maze.neighbor(u, side);
+                int d = dist[u] + (weighted ? maze.cost(v) : 1);
+                if (d < dist[v]) {
+                    dist[v] = d;
+                    queue.add(new long[]{d, v});
+                }
+            }
+        }
+        return -1;
+    }
+
+    static int shortest(Maze maze, boolean weighted) {
+        return shortest(maze, maze.start(), maze.goal(), weighted);
+    }
+
+    // Cost of a start-to-goal path (steps when weighted is false), or -1 when the
+    // cells are not a walk from start to goal through open sides
+    static int pathCost(Maze maze, List<MazeView.Cell> path, boolean weighted) {
+        return pathCost(maze, path, maze.start(), maze.goal(), weighted);
+    }
+
+    static int pathCost(Maze maze, List<MazeView.Cell> path, int from, int to, boolean weighted) {
+        if (path.isEmpty()) return -1;
+        int previous = maze.id(path.get(0).x, path.get(0).y);
+        if (previous != from) return -1;
+        int cost = 0;
+        for (int i = 1; i < path.size(); i++) {
+            int id = maze.id(path.get(i).x, path.get(i).y);
+            if (!adjacent(maze, previous, id)) return -1;
+            cost += weighted ? maze.cost(id) : 1;
+            previous = id;
+        }
+        return previous == to ? cost : -1;
+    }
+
+    static boolean adjacent(Maze maze, int a, int b) {
+        for (int side : MazeGrid.SIDES) {
+            if (!maze.hasWall(a, side) && maze.neighbor(a, side) == b) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.mazesolver;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MazeFileTest {
+
+    @Test
+    public void roundTripKeepsWallsAndHeader() throws IOException {
+        for (int t = 0; t < 30; t++) {
+            MazeGrid maze = MazeGenerator.generate(1 + t % 37, 1 + t % 23, t * 2, t);
+            if (t % 2 == 1) Terrain.paint(maze, t);
+            for (boolean compress : new boolean[]{false, true}) {
+                MazeFile read = roundTrip(new MazeFile(maze, t % maze.size(), maze.goal(), 1000L + t), compress);
+                String label = "maze " + t + (compress ? " compressed" : "");
+                assertEquals(label, maze.cols(), read.maze.cols());
+                assertEquals(label, maze.rows(), read.maze.rows());
+                assertArrayEquals(label, maze.words(), read.maze.words());
+                if (maze.costs() == null) {
+                    assertNull(label, read.maze.costs());
+                } else {
+                    assertArrayEquals(label, maze.costs(), read.maze.costs());
+                }
+                assertEquals(label, t % maze.size(), read.start);
+                assertEquals(label, maze.goal(), read.goal);
+                assertEquals(label, 1000L + t, read.seed);
+            }
+        }
+    }
+
+    @Test
+    public void corruptPayloadIsRejected() throws IOException {
+        MazeGrid maze = MazeGenerator.generate(20, 20, 0, 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MazeFile(maze, 0L).write(Channels.newChannel(out), false);
+        byte[] bytes = out.toByteArray();
+        bytes[MazeFile.HEADER_SIZE + 3] ^= 0x10;
+        try {
+            MazeFile.read(Channels.newChannel(new ByteArrayInputStream(bytes)));
+            fail("Flipped wall bit was not detected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("checksum"));
+        }
+    }
+
+    @Test
+    public void outOfRangeStartIsRejected() throws IOException {
+        MazeGrid maze = MazeGenerator.generate(8, 6, 0, 2);
+        try {
+            roundTrip(new MazeFile(maze, -1, maze.goal(), 0L), false);
+            fail("Read a maze whose start is outside it");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("Start"));
+        }
+    }
+
+    @Test
+    public void dialMatchesDijkstraOnTerrain() throws IOException {
+        for (int t = 0; t < 30; t++) {
+            MazeGrid maze = MazeGenerator.generate(2 + t % 41, 2 + t % 29, t * 3, t);
+            Terrain.paint(maze, t);
+            // Solve the copy read back from disk, so the cost bytes are checked end to end
+            MazeGrid loaded = roundTrip(new MazeFile(maze, t), t % 2 == 0).maze;
+            DialSolver solver = new DialSolver(loaded);
+            SolveResult result = solver.solve();
+            int expected = MazeChecks.shortest(maze, true);
+            assertEquals("maze " + t, expected, solver.pathCost());
+            assertEquals("maze " + t, expected, MazeChecks.pathCost(maze, result.path, true));
+        }
+    }
+
+    private static MazeFile roundTrip(MazeFile file, boolean compress) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        file.write(Channels.newChannel(out), compress);
+        return MazeFile.read(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.mazesolver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+
+    @Test
+    public void withoutSinksSolvesRunUnmeasured() throws Exception {
+        MazeGrid maze = MazeGenerator.generate(20, 20, 5, 1);
+        SolveResult expected = new SolveResult(new ArrayList<>(), new HashSet<>());
+        SolveResult result = Metrics.measure("A*", () -> {
+            assertNull(Metrics.current());
+            new AStarSolver(maze).solve();
+            return expected;
+        });
+        assertSame(expected, result);
+    }
+
+    // A solver held up by a slow animation must not have the wait counted as solving
+    @Test
+    public void timeBlockedOnTheEventQueueIsLeftOut() throws Exception {
+        List<SolveMetrics> records = new ArrayList<>();
+        MetricsSink sink = records::add;
+        Metrics.addSink(sink);
+        try {
+            MazeGrid maze = MazeGenerator.generate(60, 60, 20, 2);
+            SolveEventQueue events = new SolveEventQueue(16);
+            Thread drawer = new Thread(() -> {
+                int[] out = new int[4];
+                while (!events.isFinished()) {
+                    events.drain(out, out.length);
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+            drawer.start();
+            long start = System.nanoTime();
+            Metrics.measure("Dijkstra", () -> {
+                try {
+                    return new DialSolver(maze).solve(events);
+                } finally {
+                    events.close();
+                }
+            });
+            long elapsed = System.nanoTime() - start;
+            drawer.join();
+
+            assertEquals(1, records.size());
+            SolveMetrics m = records.get(0);
+            assertTrue(m.blockedNanos > elapsed / 2);
+            assertTrue(m.totalWallNanos + m.blockedNanos <= elapsed);
+            long phases = 0;
+            for (long nanos : m.wallNanos) phases += nanos;
+            assertTrue(phases <= m.totalWallNanos);
+        } finally {
+            Metrics.removeSink(sink);
+        }
+    }
+
+    // An open grid queues far more cells than the initial ring holds, so the queue
+    // grows mid-search; the goal is the farthest cell, so every visited cell is expanded
+    @Test
+    public void expandedSurvivesQueueGrowth() throws Exception {
+        List<SolveMetrics> records = new ArrayList<>();
+        MetricsSink sink = records::add;
+        Metrics.addSink(sink);
+        try {
+            MazeGrid maze = new MazeGrid(200, 200);
+            for (int id = 0; id < maze.size(); id++) {
+                maze.carve(id, MazeGrid.RIGHT);
+                maze.carve(id, MazeGrid.BOTTOM);
+            }
+            SolveResult result = Metrics.measure("Dijkstra", () -> new DijkstraSolver(maze).solve());
+
+            assertEquals(1, records.size());
+            SolveMetrics m = records.get(0);
+            assertEquals(maze.size(), result.visited.size());
+            assertEquals(result.visited.size(), m.expanded);
+            assertEquals(result.visited.size(), m.queuePops);
+        } finally {
+            Metrics.removeSink(sink);
+        }
+    }
+
+    // Building the landmark table is per-maze work, so it is reported on its own and
+    // kept out of the solve's times; a second solve of the same maze reuses the table
+    @Test
+    public void landmarkBuildIsReportedAsPreprocessing() throws Exception {
+        List<SolveMetrics> records = new ArrayList<>();
+        MetricsSink sink = records::add;
+        Metrics.addSink(sink);
+        try {
+            MazeGrid maze = MazeGenerator.generate(150, 150, 40, 6);
+            MazeSolver solver = SolverRegistry.get("A* (landmarks)");
+            Metrics.measure(solver.name(), () -> solver.solve(maze, null));
+            Metrics.measure(solver.name(), () -> solver.solve(maze, null));
+
+            assertEquals(2, records.size());
+            SolveMetrics built = records.get(0), reused = records.get(1);
+            assertTrue(built.preprocessWallNanos > 0);
+            long phases = 0;
+            for (long nanos : built.wallNanos) phases += nanos;
+            assertTrue(phases <= built.totalWallNanos);
+            assertEquals(0, reused.preprocessWallNanos);
+        } finally {
+            Metrics.removeSink(sink);
+        }
+    }
+}
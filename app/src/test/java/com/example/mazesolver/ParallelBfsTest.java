@@ -0,0 +1,98 @@
+package com.example.mazesolver;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelBfsTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(3);
+
+    @AfterClass
+    public static void shutDown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void distancesMatchDijkstra() {
+        ParallelBfs bfs = new ParallelBfs(POOL);
+        for (int t = 0; t < 60; t++) {
+            MazeGrid maze = MazeGenerator.generate(1 + t % 43, 1 + t % 31, t * 5, t);
+            SplittableRandom rand = new SplittableRandom(t);
+            int start = rand.nextInt(maze.size());
+            bfs.run(maze, start);
+            assertEquals("maze " + t, maze.size(), bfs.visitedCount());
+            for (int q = 0; q < 20; q++) {
+                int cell = rand.nextInt(maze.size());
+                assertEquals("maze " + t + " cell " + cell, MazeChecks.shortest(maze, start, cell, false),
+                        bfs.distance(cell));
+            }
+            assertTree(bfs, maze, start, "maze " + t);
+        }
+    }
+
+    // Walls across the middle leave the goal, and more, out of reach
+    @Test
+    public void unreachableCellsStayUnvisited() {
+        MazeGrid maze = MazeGenerator.generate(30, 30, 50, 3);
+        for (int x = 0; x < maze.cols(); x++) {
+            maze.setWall(maze.id(x, 14), MazeGrid.BOTTOM, true);
+        }
+        ParallelBfs bfs = new ParallelBfs(POOL);
+        assertFalse(bfs.run(maze, maze.start(), maze.goal()));
+        int reachable = 0;
+        for (int id = 0; id < maze.size(); id++) {
+            boolean expected = MazeChecks.shortest(maze, maze.start(), id, false) >= 0;
+            assertEquals("cell " + id, expected, bfs.isVisited(id));
+            if (expected) reachable++;
+        }
+        assertEquals(reachable, bfs.visitedCount());
+        assertTree(bfs, maze, maze.start(), "cut maze");
+    }
+
+    // Frontiers wider than one chunk are split across the pool; an open grid searched
+    // from its centre gets there, and its distances are Manhattan distances
+    @Test
+    public void parallelLevelsOnOpenGrid() {
+        MazeGrid maze = new MazeGrid(1200, 1200);
+        for (int id = 0; id < maze.size(); id++) {
+            maze.carve(id, MazeGrid.RIGHT);
+            maze.carve(id, MazeGrid.BOTTOM);
+        }
+        int start = maze.id(600, 600);
+        ParallelBfs bfs = new ParallelBfs(POOL);
+        bfs.run(maze, start);
+        assertEquals(maze.size(), bfs.visitedCount());
+        for (int id = 0; id < maze.size(); id++) {
+            assertEquals(Math.abs(maze.x(id) - 600) + Math.abs(maze.y(id) - 600), bfs.distance(id));
+        }
+        assertTree(bfs, maze, start, "open grid");
+    }
+
+    // Every parent is an open neighbour one level up, and no open wall joins cells more
+    // than one level apart; together these make every distance a shortest one
+    private static void assertTree(ParallelBfs bfs, Maze maze, int start, String where) {
+        assertEquals(where, -1, bfs.parent(start));
+        assertEquals(where, 0, bfs.distance(start));
+        for (int id = 0; id < maze.size(); id++) {
+            if (!bfs.isVisited(id)) continue;
+            if (id != start) {
+                int p = bfs.parent(id);
+                assertTrue(where + " cell " + id, bfs.isVisited(p) && MazeChecks.adjacent(maze, p, id));
+                assertEquals(where + " cell " + id, bfs.distance(p) + 1, bfs.distance(id));
+            }
+            for (int side : MazeGrid.SIDES) {
+                if (maze.hasWall(id, side)) continue;
+                int other = maze.neighbor(id, side);
+                assertTrue(where + " cell " + id, bfs.isVisited(other));
+                assertTrue(where + " cell " + id, Math.abs(bfs.distance(other) - bfs.distance(id)) <= 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.mazesolver;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SolveEventQueueTest {
+
+    @Test
+    public void fullRingDropsFrontierEventsWithoutWaiting() {
+        SolveEventQueue queue = new SolveEventQueue(4);
+        int[] events = new int[100];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = SolveListener.event(i < 4 ? SolveListener.EXPANDED : SolveListener.FRONTIER, i);
+        }
+        // Would block forever if FRONTIER events waited for room
+        queue.onEvents(events, events.length);
+        queue.close();
+
+        int[] out = new int[16];
+        assertEquals(4, queue.drain(out, out.length));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(SolveListener.event(SolveListener.EXPANDED, i), out[i]);
+        }
+        assertTrue(queue.isFinished());
+    }
+
+    @Test
+    public void expandedEventsWaitAndKeepTheirOrder() throws Exception {
+        SolveEventQueue queue = new SolveEventQueue(8);
+        int total = 64 * 150;
+        Thread producer = new Thread(() -> {
+            int[] batch = new int[64];
+            for (int i = 0; i < total; i += batch.length) {
+                for (int j = 0; j < batch.length; j++) {
+                    batch[j] = SolveListener.event(SolveListener.EXPANDED, i + j);
+                }
+                queue.onEvents(batch, batch.length);
+            }
+            queue.close();
+        });
+        producer.start();
+
+        int[] out = new int[5];
+        int next = 0;
+        while (!queue.isFinished()) {
+            int n = queue.drain(out, out.length);
+            for (int i = 0; i < n; i++) {
+                assertEquals(next++, SolveListener.cell(out[i]));
+            }
+            if (n == 0) Thread.yield();
+        }
+        producer.join();
+        assertEquals(total, next);
+    }
+
+    @Test
+    public void skipReleasesAWaitingSolver() throws Exception {
+        SolveEventQueue queue = new SolveEventQueue(2);
+        Thread producer = new Thread(() -> {
+            int[] batch = new int[256];
+            for (int i = 0; i < 1000; i++) {
+                queue.onEvents(batch, batch.length);
+            }
+        });
+        producer.start();
+        TimeUnit.MILLISECONDS.sleep(50);
+        queue.skip();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+    }
+}
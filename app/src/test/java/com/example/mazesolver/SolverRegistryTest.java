@@ -0,0 +1,90 @@
+package com.example.mazesolver;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SolverRegistryTest {
+
+    @Test
+    public void optimalSolversFindShortestPaths() {
+        for (int t = 0; t < 200; t++) {
+            MazeGrid maze = MazeGenerator.generate(2 + t % 37, 1 + t % 29, t % 40, t);
+            if (t % 2 == 0) Terrain.paint(maze, t);
+            assertOptimal(maze, "maze " + t);
+        }
+    }
+
+    // Solvers that cache per-maze state (the landmark table) must notice edits made
+    // to the same MazeGrid in place, as MazeView's wall toggling does
+    @Test
+    public void optimalSolversStayShortestAfterWallEdits() {
+        for (int t = 0; t < 6; t++) {
+            MazeGrid maze = MazeGenerator.generate(30, 30, 10, t);
+            if (t % 2 == 1) Terrain.paint(maze, t);
+            for (MazeSolver solver : SolverRegistry.all()) {
+                solver.solve(maze, null);
+            }
+            SplittableRandom rand = new SplittableRandom(t);
+            for (int edit = 0; edit < 40; edit++) {
+                int id = rand.nextInt(maze.size());
+                int side = MazeGrid.SIDES[rand.nextInt(4)];
+                maze.setWall(id, side, !maze.hasWall(id, side));
+                assertOptimal(maze, "maze " + t + " edit " + edit);
+            }
+        }
+    }
+
+    // 2001x2001 is the largest size the app offers; eight landmarks there are 128 MB
+    @Test
+    public void landmarkCountFollowsTheHeapBudget() {
+        int cells = 2001 * 2001;
+        assertEquals(8, LandmarkTable.affordableCount(cells, 8, 1L << 30));
+        int count = LandmarkTable.affordableCount(cells, 8, 96L << 20);
+        assertTrue(count > 0 && count < 8);
+        assertTrue((long) cells * (4 * count + 12) <= 96L << 20);
+        assertEquals(0, LandmarkTable.affordableCount(cells, 8, 32L << 20));
+        // Never more entries than an int[] can hold, whatever the budget
+        assertEquals(7, LandmarkTable.affordableCount(1 << 28, 8, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void oversizedLandmarkTableIsRejected() {
+        Maze huge = new Maze() {
+            @Override
+            public int cols() {
+                return 30000;
+            }
+
+            @Override
+            public int rows() {
+                return 30000;
+            }
+
+            @Override
+            public int openSides(int id) {
+                return 0;
+            }
+        };
+        try {
+            LandmarkTable.build(huge, 8);
+            fail("Built a table with more entries than an int[] holds");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("too large"));
+        }
+    }
+
+    private static void assertOptimal(MazeGrid maze, String where) {
+        for (MazeSolver solver : SolverRegistry.all()) {
+            if (!solver.has(MazeSolver.OPTIMAL)) continue;
+            boolean weighted = solver.has(MazeSolver.WEIGHTED);
+            SolveResult result = solver.solve(maze, null);
+            assertEquals(solver.name() + " on " + where, MazeChecks.shortest(maze, weighted),
+                    MazeChecks.pathCost(maze, result.path, weighted));
+        }
+    }
+}
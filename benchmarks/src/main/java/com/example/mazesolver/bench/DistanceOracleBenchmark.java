@@ -0,0 +1,72 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.DistanceOracle;
+import com.example.mazesolver.LandmarkDistanceOracle;
+import com.example.mazesolver.MazeGrid;
+import com.example.mazesolver.TreeDistanceOracle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Random start/goal queries against one preprocessed maze. extraPassages = 0 gives
+// a perfect maze and the LCA index; anything else gives landmark search.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Thread)
+public class DistanceOracleBenchmark {
+
+    private static final int QUERIES = 1 << 16;
+
+    @Param({"256", "1024"})
+    public int size;
+
+    @Param({"0", "1000"})
+    public int extraPassages;
+
+    private MazeGrid maze;
+    private DistanceOracle oracle;
+    private int[] from;
+    private int[] to;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = MazeFixtures.maze(size, extraPassages);
+        oracle = DistanceOracle.build(maze);
+        Random random = new Random(MazeFixtures.SEED);
+        from = new int[QUERIES];
+        to = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            from[i] = random.nextInt(maze.size());
+            to[i] = random.nextInt(maze.size());
+        }
+    }
+
+    // Exact distance: an LCA lookup on perfect mazes, landmark A* otherwise
+    @Benchmark
+    public int distance() {
+        int i = next++ & (QUERIES - 1);
+        return oracle.distance(from[i], to[i]);
+    }
+
+    // Landmark lower bound only; on perfect mazes this is the exact LCA distance again
+    @Benchmark
+    public int lowerBound() {
+        int i = next++ & (QUERIES - 1);
+        if (oracle instanceof LandmarkDistanceOracle) {
+            return ((LandmarkDistanceOracle) oracle).lowerBound(from[i], to[i]);
+        }
+        return oracle.distance(from[i], to[i]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DistanceOracle build() {
+        return extraPassages == 0 ? new TreeDistanceOracle(maze) : DistanceOracle.build(maze);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.MazeGenerator;
+import com.example.mazesolver.MazeGrid;
+import com.example.mazesolver.ParallelMazeGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+
+    @Param({"13", "64", "256", "1024", "4096"})
+    public int size;
+
+    @Param({"0", "10", "1000"})
+    public int extraPassages;
+
+    private SplittableRandom rand;
+    private ParallelMazeGenerator parallel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rand = new SplittableRandom(MazeFixtures.SEED);
+        parallel = new ParallelMazeGenerator();
+    }
+
+    // The routine behind MazeView.initMaze / generateMazeWithExtraPaths
+    @Benchmark
+    public MazeGrid mazeViewGeneration() {
+        MazeGrid maze = new MazeGrid(size, size);
+        MazeGenerator.carveBacktracking(maze, maze.start(), rand);
+        MazeGenerator.addExtraPassages(maze, extraPassages, rand);
+        return maze;
+    }
+
+    // MazeGenerator's raster maze, sized to hold the same number of cells
+    @Benchmark
+    public int[][] mazeGeneratorRaster() {
+        return new MazeGenerator(2 * size - 1, 2 * size - 1, MazeFixtures.SEED).getMaze();
+    }
+
+    // Tiles carved on the common ForkJoinPool; compare with -jvmArgs -Djava.util.concurrent.ForkJoinPool.common.parallelism=N
+    @Benchmark
+    public MazeGrid parallelGeneration() {
+        return parallel.generate(size, size, extraPassages, rand.nextLong());
+    }
+}
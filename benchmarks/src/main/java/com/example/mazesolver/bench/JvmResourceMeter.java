@@ -0,0 +1,24 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.ResourceMeter;
+
+import java.lang.management.ManagementFactory;
+
+// HotSpot's per-thread CPU and allocation counters, for measuring solves off-device.
+// Unlike the ART counters these are per thread, so allocatedBytes is the solve's own.
+public class JvmResourceMeter implements ResourceMeter {
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Override
+    public long threadCpuNanos() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+    }
+
+    @Override
+    public long allocatedBytes() {
+        return threads.isThreadAllocatedMemoryEnabled()
+                ? threads.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+}
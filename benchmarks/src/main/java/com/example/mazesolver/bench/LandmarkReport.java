@@ -0,0 +1,42 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.AStarSolver;
+import com.example.mazesolver.LandmarkTable;
+import com.example.mazesolver.MazeGrid;
+
+// Cells expanded by A* with landmark bounds against plain Manhattan A*, for each
+// landmark strategy and count. Expansion counts are deterministic, so this is a
+// plain report rather than a JMH benchmark; timings are in SolverBenchmark.
+//   java -cp target/benchmarks.jar com.example.mazesolver.bench.LandmarkReport 256 1024
+public class LandmarkReport {
+
+    private static final int[] EXTRA_PASSAGES = {0, 10, 1000};
+    private static final int[] LANDMARK_COUNTS = {4, 8, 16};
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[]{256, 1024} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%6s %6s %-10s %4s %10s %10s %8s %9s%n",
+                "size", "extra", "strategy", "L", "manhattan", "landmarks", "saved", "build ms");
+        for (int size : sizes) {
+            for (int extra : EXTRA_PASSAGES) {
+                MazeGrid maze = MazeFixtures.maze(size, extra);
+                int manhattan = new AStarSolver(maze).solve().visited.size();
+                for (LandmarkTable.Strategy strategy : LandmarkTable.Strategy.values()) {
+                    for (int count : LANDMARK_COUNTS) {
+                        long start = System.nanoTime();
+                        LandmarkTable table = LandmarkTable.build(maze, count, strategy);
+                        long buildNanos = System.nanoTime() - start;
+                        int alt = new AStarSolver(maze, table).solve().visited.size();
+                        System.out.printf("%6d %6d %-10s %4d %10d %10d %7.1f%% %9.1f%n",
+                                size, extra, strategy, count, manhattan, alt,
+                                100.0 * (manhattan - alt) / manhattan, buildNanos / 1e6);
+                    }
+                }
+            }
+        }
+    }
+}
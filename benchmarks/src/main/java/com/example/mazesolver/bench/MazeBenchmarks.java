@@ -0,0 +1,22 @@
+package com.example.mazesolver.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Entry point for benchmarks.jar: the usual JMH command line, with the GC profiler
+// always on so allocation rate is reported next to throughput and percentiles.
+//   java -jar target/benchmarks.jar SolverBenchmark -p size=1024
+public class MazeBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
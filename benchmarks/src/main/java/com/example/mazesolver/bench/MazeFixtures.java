@@ -0,0 +1,25 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.MazeGenerator;
+import com.example.mazesolver.MazeGrid;
+import com.example.mazesolver.Terrain;
+
+// Deterministic mazes for benchmark setup, built the same way MazeView builds them
+final class MazeFixtures {
+
+    static final long SEED = 42L;
+
+    private MazeFixtures() {
+    }
+
+    static MazeGrid maze(int size, int extraPassages) {
+        return MazeGenerator.generate(size, size, extraPassages, SEED);
+    }
+
+    // Same maze with Terrain's mud, water and doors painted on
+    static MazeGrid terrainMaze(int size, int extraPassages) {
+        MazeGrid maze = maze(size, extraPassages);
+        Terrain.paint(maze, SEED);
+        return maze;
+    }
+}
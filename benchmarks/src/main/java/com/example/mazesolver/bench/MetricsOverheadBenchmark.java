@@ -0,0 +1,57 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.MazeGrid;
+import com.example.mazesolver.MazeSolver;
+import com.example.mazesolver.Metrics;
+import com.example.mazesolver.MetricsSink;
+import com.example.mazesolver.SolveResult;
+import com.example.mazesolver.SolverRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// What Metrics.measure costs a solve. "off" has no sink installed, the state the
+// app's solvers run in whenever nobody is listening; "on" installs a sink that
+// drops every record, so the difference is the measuring itself (clock and meter
+// reads, queue counters, histogram updates) without any sink I/O.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@State(Scope.Thread)
+public class MetricsOverheadBenchmark {
+
+    @Param({"Dijkstra", "A*"})
+    public String solver;
+
+    @Param({"64", "256"})
+    public int size;
+
+    @Param({"off", "on"})
+    public String metrics;
+
+    private final MetricsSink discard = m -> { };
+    private MazeGrid maze;
+    private MazeSolver registered;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = MazeFixtures.maze(size, 10);
+        registered = SolverRegistry.get(solver);
+        if (metrics.equals("on")) {
+            Metrics.setMeter(new JvmResourceMeter());
+            Metrics.addSink(discard);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Metrics.removeSink(discard);
+    }
+
+    @Benchmark
+    public SolveResult solve() throws Exception {
+        return Metrics.measure(solver, () -> registered.solve(maze, null));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.Histogram;
+import com.example.mazesolver.JsonLinesMetricsSink;
+import com.example.mazesolver.MazeGrid;
+import com.example.mazesolver.MazeSolver;
+import com.example.mazesolver.Metrics;
+import com.example.mazesolver.SolverRegistry;
+
+import java.io.File;
+import java.io.IOException;
+
+// Every registered solver, measured through Metrics the way the app measures it:
+// each solve goes to a JSON-lines file, one record per line, and the histograms
+// are summarised at the end. Timings with and without metrics are compared in
+// MetricsOverheadBenchmark.
+//   java -cp target/benchmarks.jar com.example.mazesolver.bench.MetricsReport metrics.jsonl 256 1024
+public class MetricsReport {
+
+    private static final int RUNS = 20;
+
+    public static void main(String[] args) throws Exception {
+        File out = new File(args.length == 0 ? "metrics.jsonl" : args[0]);
+        int[] sizes = args.length < 2 ? new int[]{256, 1024} : new int[args.length - 1];
+        for (int i = 1; i < args.length; i++) {
+            sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+
+        Metrics.setMeter(new JvmResourceMeter());
+        try (JsonLinesMetricsSink sink = new JsonLinesMetricsSink(out)) {
+            Metrics.addSink(sink);
+            for (int size : sizes) {
+                MazeGrid maze = MazeFixtures.maze(size, 10);
+                for (MazeSolver solver : SolverRegistry.all()) {
+                    for (int run = 0; run < RUNS; run++) {
+                        Metrics.measure(solver.name() + "@" + size, () -> solver.solve(maze, null));
+                    }
+                }
+            }
+            Metrics.removeSink(sink);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        System.out.printf("%-40s %8s %10s %10s %10s %10s%n", "histogram", "count", "mean", "p50", "p90", "max");
+        for (String name : Metrics.histogramNames()) {
+            Histogram h = Metrics.histogram(name);
+            System.out.printf("%-40s %8d %10.0f %10d %10d %10d%n",
+                    name, h.count(), h.mean(), h.percentile(0.5), h.percentile(0.9), h.max());
+        }
+        System.out.println("records written to " + out.getAbsolutePath());
+    }
+}
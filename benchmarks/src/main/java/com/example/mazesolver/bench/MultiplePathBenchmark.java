@@ -0,0 +1,74 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.DijkstraSolver;
+import com.example.mazesolver.JunctionGraph;
+import com.example.mazesolver.MazeGrid;
+import com.example.mazesolver.MazeView;
+import com.example.mazesolver.MultiplePathSolver;
+import com.example.mazesolver.PathEnumerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Path enumeration grows with the number of loops, so it is kept to the smaller grids
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Thread)
+public class MultiplePathBenchmark {
+
+    @Param({"13", "64", "256"})
+    public int size;
+
+    @Param({"0", "10", "1000"})
+    public int extraPassages;
+
+    @Param({"10"})
+    public int maxPaths;
+
+    private MazeGrid maze;
+    private MultiplePathSolver solver;
+    private int maxLength;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = MazeFixtures.maze(size, extraPassages);
+        solver = new MultiplePathSolver(maze);
+        // Allow detours of up to a quarter of the optimal length
+        int shortest = new DijkstraSolver(maze).solve().path.size();
+        maxLength = shortest + shortest / 4;
+    }
+
+    @Benchmark
+    public void kShortestPaths(Blackhole bh) {
+        drain(solver.shortestPaths(maxPaths, Integer.MAX_VALUE), bh);
+    }
+
+    // Includes building the junction graph
+    @Benchmark
+    public void boundedEnumeration(Blackhole bh) {
+        drain(solver.paths(maxPaths, maxLength), bh);
+    }
+
+    // The same enumeration walking cell by cell, without dead-end filling
+    @Benchmark
+    public void cellEnumeration(Blackhole bh) {
+        drain(new PathEnumerator(maze, maze.start(), maze.goal(), maxPaths, maxLength), bh);
+    }
+
+    @Benchmark
+    public JunctionGraph junctionGraphBuild() {
+        return JunctionGraph.build(maze);
+    }
+
+    private static void drain(Iterator<List<MazeView.Cell>> paths, Blackhole bh) {
+        while (paths.hasNext()) {
+            bh.consume(paths.next());
+        }
+    }
+}
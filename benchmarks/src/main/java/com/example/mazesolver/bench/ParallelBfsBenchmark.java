@@ -0,0 +1,58 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.BfsSearch;
+import com.example.mazesolver.MazeGrid;
+import com.example.mazesolver.ParallelBfs;
+import com.example.mazesolver.ParallelMazeGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Full traversal of a large loopy maze, sequential against level-synchronous
+// parallel BFS at several pool sizes
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Benchmark)
+public class ParallelBfsBenchmark {
+
+    @Param({"1024", "4096"})
+    public int size;
+
+    @Param({"1", "4", "16"})
+    public int threads;
+
+    private MazeGrid maze;
+    private ForkJoinPool pool;
+    private ParallelBfs parallel;
+    private BfsSearch sequential;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        maze = new ParallelMazeGenerator(pool, ParallelMazeGenerator.DEFAULT_TILE_SIZE)
+                .generate(size, size, size * size / 16, MazeFixtures.SEED);
+        parallel = new ParallelBfs(pool);
+        sequential = new BfsSearch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int sequentialBfs() {
+        sequential.run(maze, maze.start(), -1);
+        return sequential.visitedCount();
+    }
+
+    @Benchmark
+    public int parallelBfs() {
+        parallel.run(maze, maze.start());
+        return parallel.visitedCount();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.MazeGrid;
+import com.example.mazesolver.MazeSolver;
+import com.example.mazesolver.SolveResult;
+import com.example.mazesolver.SolverRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Every solver in SolverRegistry through the same MazeSolver call the app makes.
+// The solver list below mirrors the registry; a newly registered one can be run
+// without editing this file with -p solver="Its name".
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Thread)
+public class RegisteredSolverBenchmark {
+
+    @Param({"Dijkstra", "A*", "A* (landmarks)", "Bidirectional BFS", "Bidirectional A*"})
+    public String solver;
+
+    @Param({"256", "1024"})
+    public int size;
+
+    @Param({"0", "1000"})
+    public int extraPassages;
+
+    private MazeGrid maze;
+    private MazeSolver registered;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = MazeFixtures.maze(size, extraPassages);
+        registered = SolverRegistry.get(solver);
+        // Lets solvers with per-maze caches build them outside the measurement
+        registered.solve(maze, null);
+    }
+
+    @Benchmark
+    public SolveResult solve() {
+        return registered.solve(maze, null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.DialSolver;
+import com.example.mazesolver.LpaStarSolver;
+import com.example.mazesolver.MazeGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// One wall edit and its undo, each followed by a new shortest path: LPA* repairing
+// its kept state against a full Dial search after every change. Edits cycle
+// through a fixed random list, so both sides see the same ones.
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Thread)
+public class ReplanBenchmark {
+
+    private static final int EDITS = 4096;
+
+    @Param({"256", "1000"})
+    public int size;
+
+    @Param({"0", "1000"})
+    public int extraPassages;
+
+    private MazeGrid maze;
+    private LpaStarSolver planner;
+    private DialSolver dial;
+    private final int[] cells = new int[EDITS];
+    private final int[] sides = new int[EDITS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = MazeFixtures.maze(size, extraPassages);
+        planner = new LpaStarSolver(maze);
+        planner.solve();
+        dial = new DialSolver(maze);
+        SplittableRandom random = new SplittableRandom(MazeFixtures.SEED);
+        for (int i = 0; i < EDITS; i++) {
+            cells[i] = random.nextInt(maze.size());
+            sides[i] = MazeGrid.SIDES[random.nextInt(4)];
+        }
+    }
+
+    @Benchmark
+    public int lpaStar() {
+        int i = next++ & (EDITS - 1);
+        boolean present = maze.hasWall(cells[i], sides[i]);
+        int cost = planner.setWall(cells[i], sides[i], !present);
+        return cost + planner.setWall(cells[i], sides[i], present);
+    }
+
+    @Benchmark
+    public int fullSearch() {
+        int i = next++ & (EDITS - 1);
+        boolean present = maze.hasWall(cells[i], sides[i]);
+        maze.setWall(cells[i], sides[i], !present);
+        dial.solve();
+        int cost = dial.pathCost();
+        maze.setWall(cells[i], sides[i], present);
+        dial.solve();
+        return cost + dial.pathCost();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.AStarSolver;
+import com.example.mazesolver.BfsSearch;
+import com.example.mazesolver.BidirectionalAStarSolver;
+import com.example.mazesolver.BidirectionalBfsSolver;
+import com.example.mazesolver.DijkstraSolver;
+import com.example.mazesolver.LandmarkTable;
+import com.example.mazesolver.MazeGrid;
+import com.example.mazesolver.SolveResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Corner-to-corner solves on perfect (extraPassages = 0) and loopy mazes
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    @Param({"13", "64", "256", "1024", "4096"})
+    public int size;
+
+    @Param({"0", "10", "1000"})
+    public int extraPassages;
+
+    private MazeGrid maze;
+    private DijkstraSolver dijkstra;
+    private AStarSolver aStar;
+    private AStarSolver aStarLandmarks;
+    private BidirectionalBfsSolver bidirectionalBfs;
+    private BidirectionalAStarSolver bidirectionalAStar;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = MazeFixtures.maze(size, extraPassages);
+        dijkstra = new DijkstraSolver(maze, new BfsSearch());
+        aStar = new AStarSolver(maze);
+        aStarLandmarks = new AStarSolver(maze, LandmarkTable.build(maze, 8));
+        bidirectionalBfs = new BidirectionalBfsSolver(maze);
+        bidirectionalAStar = new BidirectionalAStarSolver(maze);
+    }
+
+    @Benchmark
+    public SolveResult dijkstra() {
+        return dijkstra.solve();
+    }
+
+    // A new solver per call, so every solve allocates its buffers again
+    @Benchmark
+    public SolveResult dijkstraColdBuffers() {
+        return new DijkstraSolver(maze).solve();
+    }
+
+    @Benchmark
+    public SolveResult aStar() {
+        return aStar.solve();
+    }
+
+    // Landmark table built once in setup, as MainActivity keeps it per maze
+    @Benchmark
+    public SolveResult aStarLandmarks() {
+        return aStarLandmarks.solve();
+    }
+
+    @Benchmark
+    public SolveResult bidirectionalBfs() {
+        return bidirectionalBfs.solve();
+    }
+
+    @Benchmark
+    public SolveResult bidirectionalAStar() {
+        return bidirectionalAStar.solve();
+    }
+}
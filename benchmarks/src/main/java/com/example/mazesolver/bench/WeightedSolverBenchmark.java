@@ -0,0 +1,79 @@
+package com.example.mazesolver.bench;
+
+import com.example.mazesolver.AStarSolver;
+import com.example.mazesolver.DialSolver;
+import com.example.mazesolver.IndexedMinHeap;
+import com.example.mazesolver.MazeGrid;
+import com.example.mazesolver.NeighborKernel;
+import com.example.mazesolver.SolveResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Corner-to-corner solves over terrain costs: Dial's bucket queue against the same
+// Dijkstra on a binary heap, and A* with the cost-scaled heuristic
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Thread)
+public class WeightedSolverBenchmark {
+
+    @Param({"64", "256", "1024", "4096"})
+    public int size;
+
+    @Param({"0", "1000"})
+    public int extraPassages;
+
+    private MazeGrid maze;
+    private NeighborKernel kernel;
+    private DialSolver dial;
+    private AStarSolver aStar;
+    private final IndexedMinHeap heap = new IndexedMinHeap();
+    private int[] dist;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = MazeFixtures.terrainMaze(size, extraPassages);
+        kernel = NeighborKernel.of(maze);
+        dial = new DialSolver(maze);
+        aStar = new AStarSolver(maze);
+        dist = new int[maze.size()];
+    }
+
+    @Benchmark
+    public SolveResult dial() {
+        return dial.solve();
+    }
+
+    @Benchmark
+    public SolveResult aStar() {
+        return aStar.solve();
+    }
+
+    // Baseline: the textbook heap Dijkstra, distances only, so it does less work than dial()
+    @Benchmark
+    public int heapDijkstra() {
+        int goal = maze.goal();
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        heap.reset(maze.size());
+        dist[maze.start()] = 0;
+        heap.push(maze.start(), 0);
+        while (!heap.isEmpty()) {
+            int current = heap.pop();
+            if (current == goal) break;
+            int open = maze.openSides(current);
+            for (int k = 0, end = kernel.count(open); k < end; k++) {
+                int next = current + kernel.offset(open, k);
+                int d = dist[current] + maze.cost(next);
+                if (d < dist[next]) {
+                    dist[next] = d;
+                    heap.pushOrDecrease(next, d);
+                }
+            }
+        }
+        return dist[goal];
+    }
+}